@@ -0,0 +1,79 @@
+-- Benchmark: month filter with MONTH()/YEAR() vs. [monthStart, nextMonthStart) range on 1M synthetic bookings.
+-- Run on a local PostgreSQL: psql -d <db> -f booking-date-range-benchmark.sql
+-- Everything is created in a scratch schema and dropped at the end.
+
+DROP SCHEMA IF EXISTS booking_bench CASCADE;
+CREATE SCHEMA booking_bench;
+SET search_path TO booking_bench;
+
+CREATE TABLE location_booking
+(
+    id           BIGSERIAL PRIMARY KEY,
+    location_id  BIGINT       NOT NULL,
+    user_id      BIGINT       NOT NULL,
+    booking_date DATE         NOT NULL,
+    booking_time TIME         NOT NULL,
+    status       VARCHAR(255) NOT NULL,
+    amount       REAL,
+    commission   REAL
+);
+
+-- 1M bookings over 3 years for 500 locations
+INSERT INTO location_booking (location_id, user_id, booking_date, booking_time, status, amount, commission)
+SELECT 1 + (random() * 499)::int,
+       1 + (random() * 49999)::int,
+       DATE '2023-01-01' + (random() * 1095)::int,
+       TIME '10:00' + (random() * 12) * INTERVAL '1 hour',
+       (ARRAY ['PENDING', 'CONFIRMED', 'CANCELLED', 'SUCCESSFUL', 'SUCCESSFUL', 'SUCCESSFUL', 'FAILED'])[1 + (random() * 6)::int],
+       (random() * 2000000)::real,
+       20000
+FROM generate_series(1, 1000000);
+
+CREATE INDEX idx_location_booking_status_booking_date ON location_booking (status, booking_date);
+CREATE INDEX idx_location_booking_location_booking_date ON location_booking (location_id, booking_date);
+ANALYZE location_booking;
+
+-- System-wide monthly count, before: function on the column -> Seq Scan over all rows
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(*)
+FROM location_booking b
+WHERE b.status = 'SUCCESSFUL'
+  AND EXTRACT(MONTH FROM b.booking_date) = 6
+  AND EXTRACT(YEAR FROM b.booking_date) = 2025;
+
+-- System-wide monthly count, after: range predicate -> Index Only Scan on (status, booking_date)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(*)
+FROM location_booking b
+WHERE b.status = 'SUCCESSFUL'
+  AND b.booking_date >= DATE '2025-06-01'
+  AND b.booking_date < DATE '2025-07-01';
+
+-- Per-location monthly totals, before
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.location_id, COUNT(b.id), SUM(b.amount)
+FROM location_booking b
+WHERE EXTRACT(MONTH FROM b.booking_date) = 6
+  AND EXTRACT(YEAR FROM b.booking_date) = 2025
+  AND b.status = 'SUCCESSFUL'
+GROUP BY b.location_id;
+
+-- Per-location monthly totals, after: Bitmap Index Scan on (status, booking_date)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.location_id, COUNT(b.id), SUM(b.amount)
+FROM location_booking b
+WHERE b.booking_date >= DATE '2025-06-01'
+  AND b.booking_date < DATE '2025-07-01'
+  AND b.status = 'SUCCESSFUL'
+GROUP BY b.location_id;
+
+-- Per-location month lookups use (location_id, booking_date)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(*)
+FROM location_booking b
+WHERE b.location_id = 42
+  AND b.booking_date >= DATE '2025-06-01'
+  AND b.booking_date < DATE '2025-07-01';
+
+RESET search_path;
+DROP SCHEMA booking_bench CASCADE;
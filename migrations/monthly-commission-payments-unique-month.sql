@@ -0,0 +1,33 @@
+-- One-off migration: removes duplicate monthly commission invoices and adds the (user_id, month, year)
+-- constraint that the commission ledger upserts rely on. ddl-auto cannot add it over duplicates and the
+-- application refuses to start while it is missing. Run once per database, review the preview first.
+
+-- Preview: every duplicated month with its rows, the first row of each group is the one kept
+SELECT user_id, month, year, id, is_paid, transaction_id, total_amount, total_booking,
+       ROW_NUMBER() OVER (PARTITION BY user_id, month, year ORDER BY is_paid DESC, id) AS keep_order
+FROM monthly_commission_payments
+WHERE (user_id, month, year) IN (
+    SELECT user_id, month, year FROM monthly_commission_payments GROUP BY user_id, month, year HAVING COUNT(*) > 1)
+ORDER BY user_id, year, month, keep_order;
+
+BEGIN;
+
+-- A month paid more than once needs a manual decision (refund or merge), nothing is deleted while one exists
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM monthly_commission_payments GROUP BY user_id, month, year
+               HAVING COUNT(*) FILTER (WHERE is_paid) > 1) THEN
+        RAISE EXCEPTION 'Monthly commission invoices paid more than once, resolve them before this migration';
+    END IF;
+END $$;
+
+-- Keeps the paid row of each month, else the oldest; the ledger reconciliation rewrites the totals of unpaid rows
+DELETE FROM monthly_commission_payments p
+USING (SELECT id, ROW_NUMBER() OVER (PARTITION BY user_id, month, year ORDER BY is_paid DESC, id) AS rn
+       FROM monthly_commission_payments) d
+WHERE p.id = d.id AND d.rn > 1;
+
+ALTER TABLE monthly_commission_payments
+    ADD CONSTRAINT uk_monthly_commission_payments_user_month_year UNIQUE (user_id, month, year);
+
+COMMIT;
@@ -13,6 +13,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
 import org.springframework.beans.factory.annotation.Value;
+import com.foodbookingplatform.utils.FakePayOS;
 import vn.payos.PayOS;
 
 import java.util.Arrays;
@@ -35,8 +36,15 @@ public class FoodBookingPlatformApplication {
     @Value("${payos.checksum-key}")
     private String checksumKey;
 
+    @Value("${payos.fake}")
+    private boolean fakePayOS;
+
+    @Value("${payos.fake.latency-ms}")
+    private long fakePayOSLatencyMillis;
+
     @Bean
     public PayOS payOS() {
+        if (fakePayOS) return new FakePayOS(clientId, apiKey, checksumKey, fakePayOSLatencyMillis);
         return new PayOS(clientId, apiKey, checksumKey);
     }
 
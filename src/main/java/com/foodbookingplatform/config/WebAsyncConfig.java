@@ -0,0 +1,46 @@
+package com.foodbookingplatform.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebAsyncConfig implements WebMvcConfigurer {
+
+    @Value("${web-async.pool-size}")
+    private int poolSize;
+    @Value("${web-async.queue-capacity}")
+    private int queueCapacity;
+    @Value("${web-async.timeout-seconds}")
+    private long timeoutSeconds;
+
+    // Not a bean: any Executor bean would replace the application executor that @Async relies on
+    private ThreadPoolTaskExecutor asyncRequestExecutor;
+
+    @PostConstruct
+    public void start() {
+        asyncRequestExecutor = new ThreadPoolTaskExecutor();
+        asyncRequestExecutor.setCorePoolSize(poolSize);
+        asyncRequestExecutor.setMaxPoolSize(poolSize);
+        asyncRequestExecutor.setQueueCapacity(queueCapacity);
+        asyncRequestExecutor.setThreadNamePrefix("mvc-async-");
+        asyncRequestExecutor.initialize();
+    }
+
+    @PreDestroy
+    public void stop() {
+        asyncRequestExecutor.shutdown();
+    }
+
+    // Streamed responses run here, so slow downloads cannot hold up mails and other @Async work
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(asyncRequestExecutor);
+        configurer.setDefaultTimeout(timeoutSeconds * 1000);
+    }
+}
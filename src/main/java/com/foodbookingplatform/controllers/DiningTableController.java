@@ -0,0 +1,55 @@
+package com.foodbookingplatform.controllers;
+
+import com.foodbookingplatform.models.payload.dto.diningtable.DiningTableRequest;
+import com.foodbookingplatform.models.payload.dto.diningtable.DiningTableResponse;
+import com.foodbookingplatform.services.TableInventoryService;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.AccessDeniedException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/tables")
+@RequiredArgsConstructor
+public class DiningTableController {
+    private final TableInventoryService tableInventoryService;
+
+    @ApiResponse(responseCode = "200", description = "Http Status 200 OK")
+    @SecurityRequirement(name = "Bear Authentication")
+    @GetMapping("/location/{locationId}")
+    public ResponseEntity<List<DiningTableResponse>> getTablesOfLocation(@PathVariable Long locationId) {
+        return ResponseEntity.ok(tableInventoryService.getTablesOfLocation(locationId));
+    }
+
+    @ApiResponse(responseCode = "201", description = "Http Status 201 CREATED")
+    @SecurityRequirement(name = "Bear Authentication")
+    @PreAuthorize("hasRole('LOCATION_ADMIN')")
+    @PostMapping
+    public ResponseEntity<DiningTableResponse> addTable(@RequestBody @Valid DiningTableRequest request) throws AccessDeniedException {
+        return ResponseEntity.status(HttpStatus.CREATED).body(tableInventoryService.addTable(request));
+    }
+
+    @ApiResponse(responseCode = "200", description = "Http Status 200 OK")
+    @SecurityRequirement(name = "Bear Authentication")
+    @PreAuthorize("hasRole('LOCATION_ADMIN')")
+    @PutMapping
+    public ResponseEntity<DiningTableResponse> updateTable(@RequestBody @Valid DiningTableRequest request) throws AccessDeniedException {
+        return ResponseEntity.ok(tableInventoryService.updateTable(request));
+    }
+
+    @ApiResponse(responseCode = "200", description = "Http Status 200 OK")
+    @SecurityRequirement(name = "Bear Authentication")
+    @PreAuthorize("hasRole('LOCATION_ADMIN')")
+    @DeleteMapping("{id}")
+    public ResponseEntity<String> deleteTable(@PathVariable Long id) throws AccessDeniedException {
+        tableInventoryService.deleteTable(id);
+        return ResponseEntity.ok("Table deleted successfully");
+    }
+}
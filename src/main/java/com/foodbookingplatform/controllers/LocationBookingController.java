@@ -1,9 +1,14 @@
 package com.foodbookingplatform.controllers;
 
 import com.foodbookingplatform.models.constants.AppConstants;
+import com.foodbookingplatform.models.enums.ExportFormat;
 import com.foodbookingplatform.models.enums.LocationBookingStatus;
+import com.foodbookingplatform.models.payload.dto.checkin.CheckInResponse;
 import com.foodbookingplatform.models.payload.dto.locationbooking.LocationBookingRequest;
 import com.foodbookingplatform.models.payload.dto.locationbooking.LocationBookingResponse;
+import com.foodbookingplatform.services.BookingBoardService;
+import com.foodbookingplatform.services.CheckInService;
+import com.foodbookingplatform.services.ExportService;
 import com.foodbookingplatform.services.LocationBookingService;
 
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -13,10 +18,16 @@ import lombok.RequiredArgsConstructor;
 
 import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.nio.file.AccessDeniedException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -31,6 +42,9 @@ import java.util.Map;
 public class LocationBookingController {
 
     private final LocationBookingService locationBookingService;
+    private final BookingBoardService bookingBoardService;
+    private final CheckInService checkInService;
+    private final ExportService exportService;
 
     @ApiResponse(responseCode = "200", description = "Http Status 200 OK")
     @PreAuthorize("hasRole('SYSTEM_ADMIN')")
@@ -103,6 +117,37 @@ public class LocationBookingController {
         return ResponseEntity.ok(locationBookingService.getAllBookingByLocation(locationId, pageNo, pageSize, sortBy, sortDir, keyword));
     }
 
+    // Whole history of the location in one response, rows are streamed from the database as they are read
+    @ApiResponse(responseCode = "200", description = "Http Status 200 OK")
+    @PreAuthorize("hasAnyRole('LOCATION_ADMIN', 'SYSTEM_ADMIN')")
+    @GetMapping("location/{locationId}/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsByLocation(
+            @PathVariable Long locationId,
+            @RequestParam(name = "format", defaultValue = "CSV", required = false) ExportFormat format,
+            @RequestParam(value = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(value = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(value = "status", required = false) List<LocationBookingStatus> status
+    ) throws AccessDeniedException {
+        StreamingResponseBody body = exportService.exportBookings(locationId, format, startDate, endDate, status);
+        boolean csv = format == ExportFormat.CSV;
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bookings-location-" + locationId + (csv ? ".csv" : ".ndjson") + "\"")
+                .body(body);
+    }
+
+    // Live feed of booking changes of the location; Last-Event-ID replays what was missed while disconnected
+    @ApiResponse(responseCode = "200", description = "Http Status 200 OK")
+    @PreAuthorize("hasRole('LOCATION_ADMIN')")
+    @GetMapping(value = "location/{locationId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBookingsByLocation(
+            @PathVariable Long locationId,
+            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(name = "cursor", required = false) Long cursor
+    ) throws AccessDeniedException {
+        return bookingBoardService.subscribe(locationId, lastEventId != null ? lastEventId : cursor);
+    }
+
     @ApiResponse(responseCode = "200", description = "Http Status 200 OK")
     @PreAuthorize("hasRole('USER')")
     @GetMapping("user")
@@ -173,6 +218,15 @@ public class LocationBookingController {
         return ResponseEntity.ok(locationBookingService.successLocationBooking(id));
     }
 
+    // Token comes from the QR code of the approval mail; 202 means the check-in is queued until the database is back
+    @ApiResponse(responseCode = "200", description = "Http Status 200 OK")
+    @PreAuthorize("hasRole('LOCATION_ADMIN')")
+    @PutMapping("location/{locationId}/check-in")
+    public ResponseEntity<CheckInResponse> checkIn(@PathVariable Long locationId, @RequestParam String token) throws AccessDeniedException {
+        CheckInResponse response = checkInService.checkIn(locationId, token);
+        return ResponseEntity.status("QUEUED".equals(response.getStatus()) ? HttpStatus.ACCEPTED : HttpStatus.OK).body(response);
+    }
+
     @ApiResponse(responseCode = "200", description = "Http Status 200 OK")
     @PreAuthorize("hasRole('SYSTEM_ADMIN')")
     @GetMapping("count-all-bookings")
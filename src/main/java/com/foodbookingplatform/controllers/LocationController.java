@@ -6,17 +6,21 @@ import com.foodbookingplatform.models.enums.EntityStatus;
 import com.foodbookingplatform.models.payload.dto.location.LocationRequest;
 import com.foodbookingplatform.models.payload.dto.location.LocationResponse;
 import com.foodbookingplatform.models.payload.dto.location.LocationResponseLazy;
+import com.foodbookingplatform.models.payload.dto.slot.LocationSlotResponse;
 import com.foodbookingplatform.services.LocationService;
+import com.foodbookingplatform.services.LocationSlotService;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,6 +30,7 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class LocationController {
     private final LocationService locationService;
+    private final LocationSlotService locationSlotService;
 
     @ApiResponse(responseCode = "200", description = "Http Status 200 OK")
     @SecurityRequirement(name = "Bear Authentication")
@@ -102,6 +107,16 @@ public class LocationController {
         return ResponseEntity.ok(locationService.getLocation(id));
     }
 
+    @ApiResponse(responseCode = "200", description = "Http Status 200 OK")
+    @SecurityRequirement(name = "Bear Authentication")
+    @GetMapping("{id}/slots")
+    public ResponseEntity<List<LocationSlotResponse>> getAvailableSlots(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        return ResponseEntity.ok(locationSlotService.getAvailableSlots(id, date));
+    }
+
     @ApiResponse(responseCode = "201", description = "Http Status 201 Created")
     @SecurityRequirement(name = "Bear Authentication")
     @PreAuthorize("hasRole('SYSTEM_ADMIN')")
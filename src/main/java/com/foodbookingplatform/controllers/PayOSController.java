@@ -2,24 +2,30 @@ package com.foodbookingplatform.controllers;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.foodbookingplatform.models.payload.dto.payos.CreatePaymentDTO;
+import com.foodbookingplatform.models.payload.dto.payos.PayOSGatewayStatsResponse;
 import com.foodbookingplatform.models.payload.dto.payos.WebhookUrlDTO;
+import com.foodbookingplatform.services.PayOSGateway;
 import com.foodbookingplatform.services.PayOSService;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/v1/pay-os/")
 public class PayOSController {
 
     private final PayOSService payOSService;
+    private final PayOSGateway payOSGateway;
 
     @PostMapping(path = "/create-payment-link")
     @SecurityRequirement(name = "Bear Authentication")
@@ -28,6 +34,13 @@ public class PayOSController {
         return ResponseEntity.ok(payOSService.createPayment(createPaymentDTO));
     }
 
+    @GetMapping(path = "/gateway-stats")
+    @SecurityRequirement(name = "Bear Authentication")
+    @PreAuthorize("hasAnyRole('SYSTEM_ADMIN')")
+    public ResponseEntity<List<PayOSGatewayStatsResponse>> getGatewayStats() {
+        return ResponseEntity.ok(payOSGateway.getStats());
+    }
+
 //    @PostMapping(path = "/confirm-webhook")
 //    public ResponseEntity<ObjectNode> confirmWebhook(@RequestBody @Valid WebhookUrlDTO webhookUrlDTO) {
 //        return ResponseEntity.ok(payOSService.confirmWebhook(webhookUrlDTO));
@@ -1,17 +1,26 @@
 package com.foodbookingplatform.controllers;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.time.LocalDate;
 import java.util.List;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.foodbookingplatform.models.constants.AppConstants;
 import com.foodbookingplatform.models.entities.MonthlyCommissionPayment;
+import com.foodbookingplatform.models.enums.ExportFormat;
 import com.foodbookingplatform.models.enums.PaymentStatus;
+import com.foodbookingplatform.models.payload.dto.billing.BillingRunResponse;
+import com.foodbookingplatform.models.payload.dto.billing.CommissionReconciliationResponse;
 import com.foodbookingplatform.models.payload.dto.paymenthistory.LocationRevenueReportPaginationResponse;
 import com.foodbookingplatform.models.payload.dto.paymenthistory.MonthlyRevenueResponse;
 import com.foodbookingplatform.models.payload.dto.paymenthistory.PaymentHistoryRequest;
 import com.foodbookingplatform.models.payload.dto.paymenthistory.PaymentHistoryResponse;
 import com.foodbookingplatform.models.payload.dto.paymenthistory.RecentPaymentResponse;
+import com.foodbookingplatform.services.CommissionReconciliationService;
+import com.foodbookingplatform.services.ExportService;
+import com.foodbookingplatform.services.MonthlyBillingService;
 import com.foodbookingplatform.services.PaymentHistoryService;
 
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -20,15 +29,22 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/v1/payment-histories")
 @RequiredArgsConstructor
 public class PaymentHistoryController {
     private final PaymentHistoryService paymentHistoryService;
+    private final MonthlyBillingService monthlyBillingService;
+    private final ExportService exportService;
+    private final CommissionReconciliationService commissionReconciliationService;
 
     @ApiResponse(responseCode = "200", description = "Http Status 200 OK")
     @SecurityRequirement(name = "Bear Authentication")
@@ -57,6 +73,25 @@ public class PaymentHistoryController {
         return ResponseEntity.ok(paymentHistoryService.getAllByLocationId(locationId, pageNo, pageSize, sortBy, sortDir));
     }
 
+    // Whole payment history of the location in one response, rows are streamed from the database as they are read
+    @ApiResponse(responseCode = "200", description = "Http Status 200 OK")
+    @SecurityRequirement(name = "Bear Authentication")
+    @PreAuthorize("hasAnyRole('LOCATION_ADMIN', 'SYSTEM_ADMIN')")
+    @GetMapping("locations/{locationId}/export")
+    public ResponseEntity<StreamingResponseBody> exportPaymentHistoriesOfLocation(
+            @PathVariable(name = "locationId") Long locationId,
+            @RequestParam(name = "format", defaultValue = "CSV", required = false) ExportFormat format,
+            @RequestParam(value = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(value = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate
+    ) throws AccessDeniedException {
+        StreamingResponseBody body = exportService.exportPaymentHistories(locationId, format, startDate, endDate);
+        boolean csv = format == ExportFormat.CSV;
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"payment-histories-location-" + locationId + (csv ? ".csv" : ".ndjson") + "\"")
+                .body(body);
+    }
+
     @ApiResponse(responseCode = "200", description = "Http Status 200 OK")
     @SecurityRequirement(name = "Bear Authentication")
     @PreAuthorize("hasAnyRole('USER', 'LOCATION_ADMIN', 'SYSTEM_ADMIN')")
@@ -153,4 +188,25 @@ public class PaymentHistoryController {
     ) {
         return ResponseEntity.ok(paymentHistoryService.getLocationRevenueReports(pageNo, pageSize, sortBy, sortDir, month, year));
     }
+
+    @ApiResponse(responseCode = "200", description = "Http Status 200 OK")
+    @SecurityRequirement(name = "Bear Authentication")
+    @PreAuthorize("hasAnyRole('SYSTEM_ADMIN')")
+    @GetMapping("billing-runs/latest")
+    public ResponseEntity<BillingRunResponse> getLatestBillingRun() {
+        return ResponseEntity.ok(monthlyBillingService.getLatestBillingRun());
+    }
+
+    // Matches the month's commission invoices against the PayOS transactions that paid them; dryRun only reports
+    @ApiResponse(responseCode = "200", description = "Http Status 200 OK")
+    @SecurityRequirement(name = "Bear Authentication")
+    @PreAuthorize("hasAnyRole('SYSTEM_ADMIN')")
+    @PostMapping("commission-reconciliation")
+    public ResponseEntity<CommissionReconciliationResponse> reconcileCommissionPayments(
+            @RequestParam(name = "month") int month,
+            @RequestParam(name = "year") int year,
+            @RequestParam(name = "dryRun", defaultValue = "true", required = false) boolean dryRun
+    ) {
+        return ResponseEntity.ok(commissionReconciliationService.reconcile(month, year, dryRun));
+    }
 }
@@ -0,0 +1,47 @@
+package com.foodbookingplatform.controllers;
+
+import com.foodbookingplatform.models.payload.dto.waitlist.WaitlistRequest;
+import com.foodbookingplatform.models.payload.dto.waitlist.WaitlistResponse;
+import com.foodbookingplatform.services.WaitlistService;
+
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/waitlists")
+@SecurityRequirement(name = "Bear Authentication")
+@RequiredArgsConstructor
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    @ApiResponse(responseCode = "200", description = "Http Status 200 OK")
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping("user")
+    public ResponseEntity<List<WaitlistResponse>> getWaitlistOfUser() {
+        return ResponseEntity.ok(waitlistService.getWaitlistOfUser());
+    }
+
+    @ApiResponse(responseCode = "200", description = "Http Status 200 OK")
+    @PreAuthorize("hasRole('USER')")
+    @PostMapping
+    public ResponseEntity<WaitlistResponse> joinWaitlist(@RequestBody @Valid WaitlistRequest request) {
+        return ResponseEntity.ok(waitlistService.joinWaitlist(request));
+    }
+
+    @ApiResponse(responseCode = "200", description = "Http Status 200 OK")
+    @PreAuthorize("hasRole('USER')")
+    @DeleteMapping("{id}")
+    public ResponseEntity<String> leaveWaitlist(@PathVariable Long id) {
+        waitlistService.leaveWaitlist(id);
+        return ResponseEntity.ok("Left waitlist successfully");
+    }
+}
@@ -0,0 +1,38 @@
+package com.foodbookingplatform.models.entities;
+
+import com.foodbookingplatform.models.enums.BillingRunStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "billing_run", indexes = {
+        @Index(name = "idx_billing_run_status", columnList = "status")
+})
+public class BillingRun {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    // One run per night; an interrupted run is only resumed on the same day
+    private LocalDate runDate;
+    private int month;
+    private int year;
+    @Enumerated(EnumType.STRING)
+    private BillingRunStatus status;
+    private int totalAdmins;
+    private int processedAdmins;
+    private int failedAdmins;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    // Summed over all attempts when an interrupted run is resumed
+    private long durationMillis;
+}
@@ -0,0 +1,33 @@
+package com.foodbookingplatform.models.entities;
+
+import com.foodbookingplatform.models.enums.BillingRunStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "billing_run_chunk", indexes = {
+        @Index(name = "idx_billing_run_chunk_run", columnList = "run_id, status")
+})
+public class BillingRunChunk {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private Long runId;
+    private Long firstUserId;
+    private Long lastUserId;
+    private int admins;
+    // Exact admins of the chunk; admins whose role changed during the run can fall inside the id range
+    private Long[] userIds;
+    @Enumerated(EnumType.STRING)
+    private BillingRunStatus status;
+    private LocalDateTime finishedAt;
+}
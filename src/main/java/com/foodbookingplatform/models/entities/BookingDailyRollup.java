@@ -0,0 +1,48 @@
+package com.foodbookingplatform.models.entities;
+
+import com.foodbookingplatform.models.enums.LocationBookingStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "booking_daily_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_booking_daily_rollup_location_date_status", columnNames = {"location_id", "rollup_date", "status"})
+}, indexes = {
+        @Index(name = "idx_booking_daily_rollup_status_date", columnList = "status, rollup_date")
+})
+public class BookingDailyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "location_id", nullable = false)
+    private Long locationId;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private LocationBookingStatus status;
+
+    @Column(name = "booking_count", nullable = false)
+    private long bookingCount;
+
+    @Column(name = "guest_count", nullable = false)
+    private long guestCount;
+
+    @Column(name = "total_amount", nullable = false)
+    private double totalAmount;
+
+    @Column(name = "total_commission", nullable = false)
+    private double totalCommission;
+}
@@ -0,0 +1,36 @@
+package com.foodbookingplatform.models.entities;
+
+import com.foodbookingplatform.models.enums.ReminderType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "booking_reminder", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_booking_reminder_booking_type", columnNames = {"booking_id", "type"})
+}, indexes = {
+        @Index(name = "idx_booking_reminder_remind_at", columnList = "remind_at")
+})
+public class BookingReminder {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ReminderType type;
+
+    @Column(name = "remind_at", nullable = false)
+    private LocalDateTime remindAt;
+}
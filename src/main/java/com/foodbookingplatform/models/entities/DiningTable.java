@@ -0,0 +1,40 @@
+package com.foodbookingplatform.models.entities;
+
+import com.foodbookingplatform.models.enums.EntityStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@EntityListeners(AuditingEntityListener.class)
+@Table(name = "dining_table", indexes = {
+        @Index(name = "idx_dining_table_location", columnList = "location_id")
+})
+public class DiningTable extends BaseEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private int seats;
+
+    // Tables of the same group can be pushed together for a larger party, null when the table stands alone
+    @Column(name = "combine_group")
+    private String combineGroup;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private EntityStatus status;
+
+    @ManyToOne
+    @JoinColumn(name = "location_id", nullable = false)
+    private Location location;
+}
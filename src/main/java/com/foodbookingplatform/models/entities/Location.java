@@ -68,6 +68,9 @@ public class Location extends BaseEntity{
     @Column(name = "banner_image")
     private String bannerImage;
 
+    @Column(name = "seat_capacity")
+    private Integer seatCapacity;
+
     @ManyToOne
     @JoinColumn(name = "user_Id", nullable = false)
     private User user;
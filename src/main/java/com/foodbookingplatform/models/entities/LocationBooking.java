@@ -17,7 +17,10 @@ import java.util.Set;
 @Builder
 @Entity
 @EntityListeners(AuditingEntityListener.class)
-@Table(name = "location_booking")
+@Table(name = "location_booking", indexes = {
+        @Index(name = "idx_location_booking_status_booking_date", columnList = "status, booking_date"),
+        @Index(name = "idx_location_booking_location_booking_date", columnList = "location_Id, booking_date")
+})
 public class LocationBooking extends BaseEntity{
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -81,6 +84,12 @@ public class LocationBooking extends BaseEntity{
 
     @OneToMany(mappedBy = "locationBooking")
     private Set<FoodBooking> foodBookings;
+
+    @ManyToMany
+    @JoinTable(name = "location_booking_table",
+            joinColumns = @JoinColumn(name = "location_booking_id"),
+            inverseJoinColumns = @JoinColumn(name = "dining_table_id"))
+    private Set<DiningTable> diningTables;
 }
 
 
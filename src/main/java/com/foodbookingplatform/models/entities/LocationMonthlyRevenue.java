@@ -0,0 +1,41 @@
+package com.foodbookingplatform.models.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "location_monthly_revenue", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_location_monthly_revenue_month_location", columnNames = {"month_start", "location_id"})
+})
+public class LocationMonthlyRevenue {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "location_id", nullable = false)
+    private Long locationId;
+
+    // First day of the month
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart;
+
+    // Successful bookings of the month and their amount
+    @Column(name = "booking_count", nullable = false)
+    private long bookingCount;
+
+    @Column(name = "total_amount", nullable = false)
+    private double totalAmount;
+
+    // Set once the month is over and its figures were snapshotted from the daily rollup
+    @Column(nullable = false)
+    private boolean closed;
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
@@ -13,7 +14,9 @@ import java.time.LocalDateTime;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "monthly_commission_payments")
+@Table(name = "monthly_commission_payments", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_monthly_commission_payments_user_month_year", columnNames = {"user_id", "month", "year"})
+})
 public class MonthlyCommissionPayment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -24,6 +27,11 @@ public class MonthlyCommissionPayment {
     private int fixedAmount;
     private float totalAmount;
     private int totalBooking;
+    // Commission of earlier months that succeeded after those were paid, billed with this month and included in the totals
+    @ColumnDefault("0")
+    private float carriedAmount;
+    @ColumnDefault("0")
+    private int carriedBooking;
     private boolean isPaid;
     private String paidAt;
     private LocalDateTime expiredAt;
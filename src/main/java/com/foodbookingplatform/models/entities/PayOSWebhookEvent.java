@@ -0,0 +1,38 @@
+package com.foodbookingplatform.models.entities;
+
+import com.foodbookingplatform.models.enums.WebhookEventStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "payos_webhook_event", indexes = {
+        @Index(name = "idx_payos_webhook_event_status", columnList = "status, id")
+})
+public class PayOSWebhookEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    // PayOS retries deliveries, the unique order code turns a repeated delivery into a no-op
+    @Column(name = "order_code", nullable = false, unique = true)
+    private Long orderCode;
+    // Verified webhook data as JSON
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WebhookEventStatus status;
+    private int attempts;
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+    private LocalDateTime receivedAt;
+    private LocalDateTime processedAt;
+}
@@ -0,0 +1,7 @@
+package com.foodbookingplatform.models.enums;
+
+public enum BillingRunStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
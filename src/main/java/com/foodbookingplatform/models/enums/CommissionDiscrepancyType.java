@@ -0,0 +1,11 @@
+package com.foodbookingplatform.models.enums;
+
+public enum CommissionDiscrepancyType {
+    // Corrected by the reconciliation
+    UNMARKED_PAYMENT,
+    // Reported only, they need a person to look at them
+    PAID_WITHOUT_TRANSACTION,
+    TRANSACTION_WITHOUT_INVOICE,
+    DUPLICATE_PAYMENT,
+    AMOUNT_MISMATCH
+}
@@ -0,0 +1,6 @@
+package com.foodbookingplatform.models.enums;
+
+public enum ExportFormat {
+    CSV,
+    NDJSON
+}
@@ -0,0 +1,10 @@
+package com.foodbookingplatform.models.enums;
+
+// Declaration order is firing order: a promotion or voucher due to start and end in the same tick is activated first
+public enum OfferTransition {
+    PROMOTION_ACTIVATE,
+    VOUCHER_ACTIVATE,
+    PROMOTION_EXPIRE,
+    VOUCHER_EXPIRE,
+    ADS_REGISTRATION_EXPIRE
+}
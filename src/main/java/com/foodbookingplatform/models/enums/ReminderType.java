@@ -0,0 +1,14 @@
+package com.foodbookingplatform.models.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ReminderType {
+    DAY_BEFORE(24 * 60),
+    HOUR_BEFORE(60);
+
+    // How long before the booking time the reminder is sent
+    private final int minutesBefore;
+}
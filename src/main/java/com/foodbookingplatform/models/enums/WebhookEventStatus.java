@@ -0,0 +1,7 @@
+package com.foodbookingplatform.models.enums;
+
+public enum WebhookEventStatus {
+    PENDING,
+    PROCESSED,
+    FAILED
+}
@@ -0,0 +1,39 @@
+package com.foodbookingplatform.models.events;
+
+import com.foodbookingplatform.models.entities.LocationBooking;
+import com.foodbookingplatform.models.enums.LocationBookingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Published whenever a booking is created or changes status; previousStatus is null for new bookings
+@Getter
+@AllArgsConstructor
+public class LocationBookingStatusChangedEvent {
+    private final Long bookingId;
+    private final Long locationId;
+    private final Long userId;
+    private final LocalDate bookingDate;
+    private final LocalTime bookingTime;
+    private final int numberOfGuest;
+    private final float amount;
+    private final float commission;
+    private final LocationBookingStatus previousStatus;
+    private final LocationBookingStatus newStatus;
+
+    public static LocationBookingStatusChangedEvent of(LocationBooking booking, LocationBookingStatus previousStatus) {
+        return new LocationBookingStatusChangedEvent(
+                booking.getId(),
+                booking.getLocation().getId(),
+                booking.getUser().getId(),
+                booking.getBookingDate(),
+                booking.getBookingTime(),
+                booking.getNumberOfGuest(),
+                booking.getAmount(),
+                booking.getCommission(),
+                previousStatus,
+                booking.getStatus());
+    }
+}
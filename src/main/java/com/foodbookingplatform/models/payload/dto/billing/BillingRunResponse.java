@@ -0,0 +1,35 @@
+package com.foodbookingplatform.models.payload.dto.billing;
+
+import com.foodbookingplatform.models.enums.BillingRunStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BillingRunResponse {
+    private Long id;
+
+    private int month;
+
+    private int year;
+
+    private BillingRunStatus status;
+
+    private int totalAdmins;
+
+    private int processedAdmins;
+
+    private int failedAdmins;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    private long durationMillis;
+}
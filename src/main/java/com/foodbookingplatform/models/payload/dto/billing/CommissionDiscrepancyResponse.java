@@ -0,0 +1,30 @@
+package com.foodbookingplatform.models.payload.dto.billing;
+
+import com.foodbookingplatform.models.enums.CommissionDiscrepancyType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommissionDiscrepancyResponse {
+    private CommissionDiscrepancyType type;
+
+    private Long userId;
+
+    // Null for a transaction that matches no invoice
+    private Long invoiceId;
+
+    private List<Long> orderCodes;
+
+    private long dueAmount;
+
+    private long paidAmount;
+
+    private boolean corrected;
+}
@@ -0,0 +1,36 @@
+package com.foodbookingplatform.models.payload.dto.billing;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommissionReconciliationResponse {
+    private int month;
+
+    private int year;
+
+    private boolean dryRun;
+
+    private int invoices;
+
+    private int transactions;
+
+    private int matchedInvoices;
+
+    private int correctedInvoices;
+
+    // Paid invoices that got their transaction id filled in
+    private int linkedInvoices;
+
+    private LocalDateTime reconciledAt;
+
+    private List<CommissionDiscrepancyResponse> discrepancies;
+}
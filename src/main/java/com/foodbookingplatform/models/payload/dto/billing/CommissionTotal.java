@@ -0,0 +1,14 @@
+package com.foodbookingplatform.models.payload.dto.billing;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CommissionTotal {
+    public static final CommissionTotal NONE = new CommissionTotal(0, 0);
+
+    private final int totalBooking;
+
+    private final double totalAmount;
+}
@@ -0,0 +1,38 @@
+package com.foodbookingplatform.models.payload.dto.bookingboard;
+
+import com.foodbookingplatform.models.enums.LocationBookingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingBoardEvent {
+    private long cursor;
+
+    private Long bookingId;
+
+    private LocalDate bookingDate;
+
+    private LocalTime bookingTime;
+
+    private int numberOfGuest;
+
+    private float amount;
+
+    // Null when the booking was just created
+    private LocationBookingStatus previousStatus;
+
+    private LocationBookingStatus newStatus;
+
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,29 @@
+package com.foodbookingplatform.models.payload.dto.checkin;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckInResponse {
+    private Long bookingId;
+
+    private LocalDate bookingDate;
+
+    private LocalTime bookingTime;
+
+    // CHECKED_IN, or QUEUED when the database was unreachable and the check-in will be written shortly
+    private String status;
+
+    private LocalDateTime checkedInAt;
+}
@@ -0,0 +1,31 @@
+package com.foodbookingplatform.models.payload.dto.diningtable;
+
+import com.foodbookingplatform.models.enums.EntityStatus;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiningTableRequest {
+    private Long id;
+
+    @NotBlank(message = "Table's name cannot be blank")
+    private String name;
+
+    @Min(value = 1, message = "Table must have at least 1 seat")
+    private int seats;
+
+    private String combineGroup;
+
+    private EntityStatus status;
+
+    @NotNull(message = "Location must not be blank")
+    private Long locationId;
+}
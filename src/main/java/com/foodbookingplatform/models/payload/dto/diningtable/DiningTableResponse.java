@@ -0,0 +1,25 @@
+package com.foodbookingplatform.models.payload.dto.diningtable;
+
+import com.foodbookingplatform.models.enums.EntityStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiningTableResponse {
+    private Long id;
+
+    private String name;
+
+    private int seats;
+
+    private String combineGroup;
+
+    private EntityStatus status;
+
+    private Long locationId;
+}
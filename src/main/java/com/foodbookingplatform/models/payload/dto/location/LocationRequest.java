@@ -50,6 +50,9 @@ public class LocationRequest {
 
     private EntityStatus status;
 
+    @Min(value = 1, message = "Location's seat capacity must be at least 1")
+    private Integer seatCapacity;
+
     @NotNull(message = "UserId cannot be null")
     private Long userId;
 
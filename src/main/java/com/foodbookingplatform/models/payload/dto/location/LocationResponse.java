@@ -50,6 +50,8 @@ public class LocationResponse {
 
     private String bannerImage;
 
+    private Integer seatCapacity;
+
     private UserResponse user;
 
     private BrandResponse brand;
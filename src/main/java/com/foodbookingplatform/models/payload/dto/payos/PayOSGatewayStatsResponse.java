@@ -0,0 +1,34 @@
+package com.foodbookingplatform.models.payload.dto.payos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayOSGatewayStatsResponse {
+    private String operation;
+
+    private long calls;
+
+    private long failures;
+
+    private long timeouts;
+
+    // Turned away by the bulkhead or the open circuit without calling PayOS
+    private long rejections;
+
+    private double averageMillis;
+
+    private long maxMillis;
+
+    // Upper bound of the latency bucket holding the 95th percentile call
+    private long p95Millis;
+
+    private String circuitState;
+}
@@ -45,4 +45,10 @@ public class ApplyPromotionResponse {
     private LocalDateTime endHourTime;
 
     private boolean isUsable = false;
+
+    public ApplyPromotionResponse(ApplyPromotionResponse other, boolean isUsable) {
+        this(other.id, other.title, other.description, other.status, other.promotionType, other.image, other.startDate,
+                other.endDate, other.discountValue, other.maxDiscount, other.freeItem, other.minBill, other.minPeople,
+                other.startHourTime, other.endHourTime, isUsable);
+    }
 }
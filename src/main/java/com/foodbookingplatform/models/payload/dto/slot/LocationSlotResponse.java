@@ -0,0 +1,20 @@
+package com.foodbookingplatform.models.payload.dto.slot;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationSlotResponse {
+    private LocalTime startTime;
+
+    private LocalTime endTime;
+
+    private int remainingSeats;
+}
@@ -0,0 +1,32 @@
+package com.foodbookingplatform.models.payload.dto.waitlist;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistResponse {
+    private Long id;
+
+    private Long locationId;
+
+    private LocalDate bookingDate;
+
+    private LocalTime bookingTime;
+
+    private int numberOfGuest;
+
+    private int position;
+
+    private LocalDateTime joinedAt;
+}
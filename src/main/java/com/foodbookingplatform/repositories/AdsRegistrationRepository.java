@@ -4,14 +4,19 @@ import com.foodbookingplatform.models.entities.AdsRegistration;
 import com.foodbookingplatform.models.enums.AdsType;
 import com.foodbookingplatform.models.enums.OfferStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface AdsRegistrationRepository extends JpaRepository<AdsRegistration, Long> {
     List<AdsRegistration> findByLocation_IdAndStatus(Long id, OfferStatus status);
     List<AdsRegistration> findByAds_TypeAndStatus(AdsType type, OfferStatus status);
     AdsRegistration findByLocation_IdAndAds_IdAndStatus(Long locationId, Long adsId, OfferStatus status);
-//    @Query("SELECT adsregis FROM AdsRegistration adsregis WHERE ((:now > adsregis.expireDate) and adsregis.status = :status)")
-    List<AdsRegistration> findByExpireDateBeforeAndStatus(LocalDateTime now, OfferStatus status);
+    List<AdsRegistration> findAllByIdInAndStatusAndExpireDateLessThanEqual(Collection<Long> ids, OfferStatus status, LocalDateTime now);
+
+    @Query("SELECT a.id, a.expireDate FROM AdsRegistration a WHERE a.status = :status")
+    List<Object[]> findExpireDatesByStatus(@Param("status") OfferStatus status);
 }
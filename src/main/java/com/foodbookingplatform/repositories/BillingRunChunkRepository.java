@@ -0,0 +1,15 @@
+package com.foodbookingplatform.repositories;
+
+import com.foodbookingplatform.models.entities.BillingRunChunk;
+import com.foodbookingplatform.models.enums.BillingRunStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface BillingRunChunkRepository extends JpaRepository<BillingRunChunk, Long> {
+    // Admin ids covered by each chunk of a run in the given status
+    @Query("SELECT c.userIds FROM BillingRunChunk c WHERE c.runId = :runId AND c.status = :status")
+    List<Long[]> findUserIds(@Param("runId") Long runId, @Param("status") BillingRunStatus status);
+}
@@ -0,0 +1,32 @@
+package com.foodbookingplatform.repositories;
+
+import com.foodbookingplatform.models.entities.BillingRun;
+import com.foodbookingplatform.models.enums.BillingRunStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+public interface BillingRunRepository extends JpaRepository<BillingRun, Long> {
+    Optional<BillingRun> findFirstByRunDateAndStatusOrderByIdDesc(LocalDate runDate, BillingRunStatus status);
+
+    Optional<BillingRun> findFirstByOrderByIdDesc();
+
+    @Modifying
+    @Query("UPDATE BillingRun r SET r.status = :failed WHERE r.status = :running AND r.runDate < :today")
+    int failStaleRuns(@Param("today") LocalDate today,
+                      @Param("running") BillingRunStatus running,
+                      @Param("failed") BillingRunStatus failed);
+
+    // Counters are bumped in the chunk transactions, so several workers can report progress at once
+    @Modifying
+    @Query("UPDATE BillingRun r SET r.processedAdmins = r.processedAdmins + :admins WHERE r.id = :id")
+    int addProcessedAdmins(@Param("id") Long id, @Param("admins") int admins);
+
+    @Modifying
+    @Query("UPDATE BillingRun r SET r.failedAdmins = r.failedAdmins + :admins WHERE r.id = :id")
+    int addFailedAdmins(@Param("id") Long id, @Param("admins") int admins);
+}
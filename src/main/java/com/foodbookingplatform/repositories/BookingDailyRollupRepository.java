@@ -0,0 +1,73 @@
+package com.foodbookingplatform.repositories;
+
+import com.foodbookingplatform.models.entities.BookingDailyRollup;
+import com.foodbookingplatform.models.enums.EntityStatus;
+import com.foodbookingplatform.models.enums.LocationBookingStatus;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface BookingDailyRollupRepository extends JpaRepository<BookingDailyRollup, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO booking_daily_rollup (location_id, rollup_date, status, booking_count, guest_count, total_amount, total_commission) " +
+            "VALUES (:locationId, :rollupDate, :status, :bookingCount, :guestCount, :totalAmount, :totalCommission) " +
+            "ON CONFLICT (location_id, rollup_date, status) DO UPDATE SET " +
+            "booking_count = booking_daily_rollup.booking_count + EXCLUDED.booking_count, " +
+            "guest_count = booking_daily_rollup.guest_count + EXCLUDED.guest_count, " +
+            "total_amount = booking_daily_rollup.total_amount + EXCLUDED.total_amount, " +
+            "total_commission = booking_daily_rollup.total_commission + EXCLUDED.total_commission",
+            nativeQuery = true)
+    int addToRollup(@Param("locationId") Long locationId,
+                    @Param("rollupDate") LocalDate rollupDate,
+                    @Param("status") String status,
+                    @Param("bookingCount") long bookingCount,
+                    @Param("guestCount") long guestCount,
+                    @Param("totalAmount") double totalAmount,
+                    @Param("totalCommission") double totalCommission);
+
+    // Overwrite rollup rows that differ from the aggregate of raw bookings; returns the number of rows repaired
+    @Modifying
+    @Query(value = "INSERT INTO booking_daily_rollup (location_id, rollup_date, status, booking_count, guest_count, total_amount, total_commission) " +
+            "SELECT b.location_id, b.booking_date, b.status, COUNT(*), SUM(b.number_of_guest), " +
+            "COALESCE(SUM(b.amount), 0), COALESCE(SUM(b.commission), 0) " +
+            "FROM location_booking b WHERE b.booking_date >= :fromDate " +
+            "GROUP BY b.location_id, b.booking_date, b.status " +
+            "ON CONFLICT (location_id, rollup_date, status) DO UPDATE SET " +
+            "booking_count = EXCLUDED.booking_count, guest_count = EXCLUDED.guest_count, " +
+            "total_amount = EXCLUDED.total_amount, total_commission = EXCLUDED.total_commission " +
+            "WHERE (booking_daily_rollup.booking_count, booking_daily_rollup.guest_count, " +
+            "booking_daily_rollup.total_amount, booking_daily_rollup.total_commission) IS DISTINCT FROM " +
+            "(EXCLUDED.booking_count, EXCLUDED.guest_count, EXCLUDED.total_amount, EXCLUDED.total_commission)",
+            nativeQuery = true)
+    int reconcileFrom(@Param("fromDate") LocalDate fromDate);
+
+    @Modifying
+    @Query(value = "DELETE FROM booking_daily_rollup r WHERE r.rollup_date >= :fromDate AND NOT EXISTS (" +
+            "SELECT 1 FROM location_booking b WHERE b.location_id = r.location_id " +
+            "AND b.booking_date = r.rollup_date AND b.status = r.status)",
+            nativeQuery = true)
+    int deleteOrphanedFrom(@Param("fromDate") LocalDate fromDate);
+
+    @Query("SELECT COALESCE(SUM(r.bookingCount), 0) FROM BookingDailyRollup r " +
+            "WHERE r.status = :status AND r.rollupDate >= :fromDate AND r.rollupDate < :toDate")
+    long sumBookingCount(@Param("status") LocationBookingStatus status,
+                         @Param("fromDate") LocalDate fromDate,
+                         @Param("toDate") LocalDate toDate);
+
+    // Returns {month, booking count, active location count} for every month of the range that has rollup rows
+    @Query("SELECT EXTRACT(MONTH FROM r.rollupDate), SUM(r.bookingCount), " +
+            "(SELECT COUNT(l) FROM Location l WHERE l.status = :locationStatus) " +
+            "FROM BookingDailyRollup r " +
+            "WHERE r.status = :status AND r.rollupDate >= :fromDate AND r.rollupDate < :toDate " +
+            "GROUP BY EXTRACT(MONTH FROM r.rollupDate)")
+    List<Object[]> sumBookingCountByMonth(@Param("status") LocationBookingStatus status,
+                                          @Param("locationStatus") EntityStatus locationStatus,
+                                          @Param("fromDate") LocalDate fromDate,
+                                          @Param("toDate") LocalDate toDate);
+}
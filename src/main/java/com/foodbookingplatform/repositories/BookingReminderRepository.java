@@ -0,0 +1,46 @@
+package com.foodbookingplatform.repositories;
+
+import com.foodbookingplatform.models.entities.BookingReminder;
+import com.foodbookingplatform.models.enums.LocationBookingStatus;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingReminderRepository extends JpaRepository<BookingReminder, Long> {
+
+    // Returns {id, remindAt} of the reminders falling in [from, to)
+    @Query("SELECT r.id, r.remindAt FROM BookingReminder r WHERE r.remindAt >= :from AND r.remindAt < :to")
+    List<Object[]> findDueBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Returns {reminderType, booking} for reminders that still exist and whose booking is in the given status
+    @Query("SELECT r.type, b FROM BookingReminder r JOIN LocationBooking b ON b.id = r.bookingId " +
+            "WHERE r.id IN :ids AND b.status = :status")
+    List<Object[]> findWithBookingByIdInAndStatus(@Param("ids") Collection<Long> ids,
+                                                  @Param("status") LocationBookingStatus status);
+
+    @Modifying
+    @Query("DELETE FROM BookingReminder r WHERE r.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM BookingReminder r WHERE r.bookingId = :bookingId")
+    int deleteByBookingId(@Param("bookingId") Long bookingId);
+
+    // Offsets mirror ReminderType.minutesBefore
+    @Modifying
+    @Query(value = "INSERT INTO booking_reminder (booking_id, type, remind_at) " +
+            "SELECT b.id, t.type, (b.booking_date + b.booking_time) - t.minutes_before * INTERVAL '1 minute' " +
+            "FROM location_booking b CROSS JOIN (VALUES ('DAY_BEFORE', 1440), ('HOUR_BEFORE', 60)) AS t(type, minutes_before) " +
+            "WHERE b.status = 'CONFIRMED' AND b.booking_date >= :today " +
+            "AND (b.booking_date + b.booking_time) - t.minutes_before * INTERVAL '1 minute' > :now " +
+            "ON CONFLICT (booking_id, type) DO NOTHING",
+            nativeQuery = true)
+    int insertMissingForConfirmedBookings(@Param("today") LocalDate today, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,12 @@
+package com.foodbookingplatform.repositories;
+
+import com.foodbookingplatform.models.entities.DiningTable;
+import com.foodbookingplatform.models.enums.EntityStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface DiningTableRepository extends JpaRepository<DiningTable, Long> {
+    List<DiningTable> findAllByLocation_IdOrderBySeatsAsc(Long locationId);
+    List<DiningTable> findAllByLocation_IdAndStatusOrderBySeatsAsc(Long locationId, EntityStatus status);
+}
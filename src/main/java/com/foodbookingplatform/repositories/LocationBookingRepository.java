@@ -11,9 +11,13 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface LocationBookingRepository extends JpaRepository<LocationBooking, Long>, JpaSpecificationExecutor<LocationBooking> {
@@ -25,22 +29,58 @@ public interface LocationBookingRepository extends JpaRepository<LocationBooking
 
     Page<LocationBooking> findAllByUser(User user, Pageable pageable);
 
-    @Query("SELECT b FROM LocationBooking b WHERE b.user.id = :userId " +
-            "AND b.status = :status " +
-            "AND FUNCTION('MONTH', b.bookingDate) = :month " +
-            "AND FUNCTION('YEAR', b.bookingDate) = :year")
-    List<LocationBooking> findAllSuccessfulBookings(@Param("userId") Long userId,
-                                                    @Param("status") LocationBookingStatus status,
-                                                    @Param("month") int month,
-                                                    @Param("year") int year);
-
     List<LocationBooking> findAllByLocationUserAndStatus(User user, LocationBookingStatus status);
 
-    @Query("SELECT COUNT(b) FROM LocationBooking b " +
-            "WHERE b.status = :status " +
-            "AND FUNCTION('MONTH', b.bookingDate) = :month " +
-            "AND FUNCTION('YEAR', b.bookingDate) = :year")
-    int countSuccessfulBookingsInSystem(@Param("status") LocationBookingStatus status,
-                                        @Param("month") int month,
-                                        @Param("year") int year);
+    // Returns {owner userId, booking count, commission sum} per location owner
+    @Query("SELECT b.location.user.id, COUNT(b.id), COALESCE(SUM(b.commission), 0) FROM LocationBooking b " +
+            "WHERE b.status = :status AND b.bookingDate >= :monthStart AND b.bookingDate < :nextMonthStart " +
+            "GROUP BY b.location.user.id")
+    List<Object[]> sumCommissionByLocationOwner(@Param("status") LocationBookingStatus status,
+                                                @Param("monthStart") LocalDate monthStart,
+                                                @Param("nextMonthStart") LocalDate nextMonthStart);
+
+    @Query("SELECT b.id, b.status, b.bookingDate, b.bookingTime FROM LocationBooking b WHERE b.status IN :statuses")
+    List<Object[]> findDeadlinesByStatusIn(@Param("statuses") Collection<LocationBookingStatus> statuses);
+
+    @Query("SELECT b.id, b.bookingDate, b.bookingTime FROM LocationBooking b " +
+            "WHERE b.user.id = :userId AND b.bookingDate >= :fromDate AND b.status IN :statuses")
+    List<Object[]> findUpcomingBookingTimesOfUser(@Param("userId") Long userId,
+                                                  @Param("fromDate") LocalDate fromDate,
+                                                  @Param("statuses") Collection<LocationBookingStatus> statuses);
+
+    @Query("SELECT b.bookingTime, b.numberOfGuest FROM LocationBooking b " +
+            "WHERE b.location.id = :locationId AND b.bookingDate = :bookingDate AND b.status IN :statuses")
+    List<Object[]> findSeatUsage(@Param("locationId") Long locationId,
+                                 @Param("bookingDate") LocalDate bookingDate,
+                                 @Param("statuses") Collection<LocationBookingStatus> statuses);
+
+    @Query("SELECT b.id, b.bookingTime, t.id FROM LocationBooking b JOIN b.diningTables t " +
+            "WHERE b.location.id = :locationId AND b.bookingDate = :bookingDate AND b.status IN :statuses")
+    List<Object[]> findTableUsage(@Param("locationId") Long locationId,
+                                  @Param("bookingDate") LocalDate bookingDate,
+                                  @Param("statuses") Collection<LocationBookingStatus> statuses);
+
+    @Query("SELECT b.id, b.location.id, b.user.id, b.bookingDate, b.bookingTime, b.numberOfGuest, b.amount, b.commission " +
+            "FROM LocationBooking b WHERE b.id IN :ids AND b.status = :status")
+    List<Object[]> findSnapshotsByIdInAndStatus(@Param("ids") Collection<Long> ids,
+                                                @Param("status") LocationBookingStatus status);
+
+    // Succeeds for exactly one caller: only a confirmed booking of that location can be checked in
+    @Modifying
+    @Query("UPDATE LocationBooking b SET b.status = :newStatus, b.commission = :commission, b.modifiedDate = :checkedInAt " +
+            "WHERE b.id = :id AND b.location.id = :locationId AND b.status = :currentStatus")
+    int checkIn(@Param("id") Long id,
+                @Param("locationId") Long locationId,
+                @Param("currentStatus") LocationBookingStatus currentStatus,
+                @Param("newStatus") LocationBookingStatus newStatus,
+                @Param("commission") float commission,
+                @Param("checkedInAt") LocalDateTime checkedInAt);
+
+    @Modifying
+    @Query("UPDATE LocationBooking b SET b.status = :newStatus, b.modifiedDate = :modifiedDate " +
+            "WHERE b.id IN :ids AND b.status = :currentStatus")
+    int updateStatusByIdInAndStatus(@Param("ids") Collection<Long> ids,
+                                    @Param("currentStatus") LocationBookingStatus currentStatus,
+                                    @Param("newStatus") LocationBookingStatus newStatus,
+                                    @Param("modifiedDate") LocalDateTime modifiedDate);
 }
@@ -0,0 +1,67 @@
+package com.foodbookingplatform.repositories;
+
+import com.foodbookingplatform.models.entities.LocationMonthlyRevenue;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+
+public interface LocationMonthlyRevenueRepository extends JpaRepository<LocationMonthlyRevenue, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO location_monthly_revenue (location_id, month_start, booking_count, total_amount, closed) " +
+            "VALUES (:locationId, :monthStart, :bookingCount, :totalAmount, false) " +
+            "ON CONFLICT (month_start, location_id) DO UPDATE SET " +
+            "booking_count = location_monthly_revenue.booking_count + EXCLUDED.booking_count, " +
+            "total_amount = location_monthly_revenue.total_amount + EXCLUDED.total_amount",
+            nativeQuery = true)
+    int addToMonth(@Param("locationId") Long locationId,
+                   @Param("monthStart") LocalDate monthStart,
+                   @Param("bookingCount") long bookingCount,
+                   @Param("totalAmount") double totalAmount);
+
+    // Overwrites the month with the sum of its successful daily rollup rows
+    @Modifying
+    @Query(value = "INSERT INTO location_monthly_revenue (location_id, month_start, booking_count, total_amount, closed) " +
+            "SELECT r.location_id, :monthStart, SUM(r.booking_count), SUM(r.total_amount), :closed " +
+            "FROM booking_daily_rollup r " +
+            "WHERE r.status = 'SUCCESSFUL' AND r.rollup_date >= :monthStart AND r.rollup_date < :nextMonthStart " +
+            "GROUP BY r.location_id " +
+            "ON CONFLICT (month_start, location_id) DO UPDATE SET " +
+            "booking_count = EXCLUDED.booking_count, total_amount = EXCLUDED.total_amount, closed = EXCLUDED.closed",
+            nativeQuery = true)
+    int snapshotMonth(@Param("monthStart") LocalDate monthStart,
+                      @Param("nextMonthStart") LocalDate nextMonthStart,
+                      @Param("closed") boolean closed);
+
+    @Modifying
+    @Query(value = "DELETE FROM location_monthly_revenue m WHERE m.month_start = :monthStart AND NOT EXISTS (" +
+            "SELECT 1 FROM booking_daily_rollup r WHERE r.location_id = m.location_id AND r.status = 'SUCCESSFUL' " +
+            "AND r.rollup_date >= :monthStart AND r.rollup_date < :nextMonthStart)",
+            nativeQuery = true)
+    int deleteOrphanedOfMonth(@Param("monthStart") LocalDate monthStart,
+                              @Param("nextMonthStart") LocalDate nextMonthStart);
+
+    // Every month at once, used to fill an empty table
+    @Modifying
+    @Query(value = "INSERT INTO location_monthly_revenue (location_id, month_start, booking_count, total_amount, closed) " +
+            "SELECT r.location_id, CAST(date_trunc('month', r.rollup_date) AS DATE), SUM(r.booking_count), SUM(r.total_amount), " +
+            "CAST(date_trunc('month', r.rollup_date) AS DATE) < :currentMonthStart " +
+            "FROM booking_daily_rollup r WHERE r.status = 'SUCCESSFUL' " +
+            "GROUP BY r.location_id, CAST(date_trunc('month', r.rollup_date) AS DATE) " +
+            "ON CONFLICT (month_start, location_id) DO NOTHING",
+            nativeQuery = true)
+    int backfillAllMonths(@Param("currentMonthStart") LocalDate currentMonthStart);
+
+    @Query(value = "SELECT l.id as locationId, l.name as locationName, l.phone as locationPhoneNumber, " +
+            "r.bookingCount as bookingCount, r.totalAmount as totalBookingAmount " +
+            "FROM LocationMonthlyRevenue r JOIN Location l ON l.id = r.locationId " +
+            "WHERE r.monthStart = :monthStart AND r.bookingCount > 0",
+            countQuery = "SELECT COUNT(r) FROM LocationMonthlyRevenue r WHERE r.monthStart = :monthStart AND r.bookingCount > 0")
+    Page<Object[]> findReportOfMonth(@Param("monthStart") LocalDate monthStart, Pageable pageable);
+}
@@ -3,24 +3,25 @@ package com.foodbookingplatform.repositories;
 import com.foodbookingplatform.models.entities.Location;
 import com.foodbookingplatform.models.enums.EntityStatus;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface LocationRepository extends JpaRepository<Location, Long>, JpaSpecificationExecutor<Location> {
     List<Location> getLocationsByUserId(Long userId);
 
     int countLocationsByStatusEquals(EntityStatus status);
 
-    @Query("SELECT l.id as locationId, l.name as locationName, l.phone as locationPhoneNumber, COUNT(lb.id) as bookingCount, " +
-            "SUM(lb.amount) as totalBookingAmount " +
-            "FROM Location l LEFT JOIN LocationBooking lb ON l.id = lb.location.id " +
-            "WHERE MONTH(lb.bookingDate) = :month AND YEAR(lb.bookingDate) = :year AND lb.status = 'SUCCESSFUL' " +
-            "GROUP BY l.id, l.name, l.phone")
-    Page<Object[]> getLocationInfoAndNumberOfBookingInMonth(int month, int year, Pageable pageable);
+    // Serializes bookings of one location until the surrounding transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM Location l WHERE l.id = :id")
+    Optional<Location> findByIdForUpdate(@Param("id") Long id);
 
 }
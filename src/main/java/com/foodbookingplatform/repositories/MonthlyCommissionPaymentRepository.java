@@ -2,12 +2,75 @@ package com.foodbookingplatform.repositories;
 
 import com.foodbookingplatform.models.entities.MonthlyCommissionPayment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface MonthlyCommissionPaymentRepository extends JpaRepository<MonthlyCommissionPayment, Long> {
     Optional<MonthlyCommissionPayment> findByUserIdAndMonthAndYear(long userId, int month, int year);
     List<MonthlyCommissionPayment> findAllByIsPaidFalseAndMonthAndYear( int month, int year);
+
+    @Query("SELECT p.id, p.userId, p.fixedAmount, p.totalAmount, p.isPaid, p.transactionId FROM MonthlyCommissionPayment p " +
+            "WHERE p.month = :month AND p.year = :year")
+    List<Object[]> findInvoicesOfMonth(@Param("month") int month, @Param("year") int year);
     Optional<MonthlyCommissionPayment> findByUserId(Long userId);
+
+    // Only the first delivery of a payment sets paidAt
+    @Modifying
+    @Query("UPDATE MonthlyCommissionPayment p SET p.isPaid = true, p.paidAt = :paidAt " +
+            "WHERE p.userId = :userId AND p.month = :month AND p.year = :year AND p.isPaid = false")
+    int markPaid(@Param("userId") Long userId,
+                 @Param("month") int month,
+                 @Param("year") int year,
+                 @Param("paidAt") String paidAt);
+
+    // Adds one successful booking to the month row of the location owner, creating the row on first use.
+    // A paid row is left as it was paid and 0 is returned; carried bookings also count into the carried totals
+    @Modifying
+    @Query(value = "INSERT INTO monthly_commission_payments (user_id, month, year, fixed_amount, total_amount, total_booking, " +
+            "carried_amount, carried_booking, is_paid, expired_at) " +
+            "SELECT l.user_id, :month, :year, :fixedAmount, :commission, 1, :carriedAmount, :carriedBooking, false, :expiredAt " +
+            "FROM location l WHERE l.id = :locationId " +
+            "ON CONFLICT (user_id, month, year) DO UPDATE SET " +
+            "total_amount = monthly_commission_payments.total_amount + EXCLUDED.total_amount, " +
+            "total_booking = monthly_commission_payments.total_booking + EXCLUDED.total_booking, " +
+            "carried_amount = monthly_commission_payments.carried_amount + EXCLUDED.carried_amount, " +
+            "carried_booking = monthly_commission_payments.carried_booking + EXCLUDED.carried_booking " +
+            "WHERE monthly_commission_payments.is_paid = false",
+            nativeQuery = true)
+    int accrueCommission(@Param("locationId") Long locationId,
+                         @Param("month") int month,
+                         @Param("year") int year,
+                         @Param("commission") float commission,
+                         @Param("carriedAmount") float carriedAmount,
+                         @Param("carriedBooking") int carriedBooking,
+                         @Param("fixedAmount") int fixedAmount,
+                         @Param("expiredAt") LocalDateTime expiredAt);
+
+    // Rewrites the unpaid month rows that differ from the successful-booking rollup plus what was carried onto them;
+    // returns the number of rows repaired
+    @Modifying
+    @Query(value = "INSERT INTO monthly_commission_payments (user_id, month, year, fixed_amount, total_amount, total_booking, is_paid, expired_at) " +
+            "SELECT l.user_id, :month, :year, :fixedAmount, FLOOR(SUM(r.total_commission)), SUM(r.booking_count), false, :expiredAt " +
+            "FROM booking_daily_rollup r JOIN location l ON l.id = r.location_id " +
+            "WHERE r.status = 'SUCCESSFUL' AND r.rollup_date >= :monthStart AND r.rollup_date < :nextMonthStart " +
+            "GROUP BY l.user_id HAVING SUM(r.booking_count) > 0 " +
+            "ON CONFLICT (user_id, month, year) DO UPDATE SET " +
+            "total_amount = EXCLUDED.total_amount + monthly_commission_payments.carried_amount, " +
+            "total_booking = EXCLUDED.total_booking + monthly_commission_payments.carried_booking " +
+            "WHERE monthly_commission_payments.is_paid = false " +
+            "AND (monthly_commission_payments.total_amount IS DISTINCT FROM EXCLUDED.total_amount + monthly_commission_payments.carried_amount " +
+            "OR monthly_commission_payments.total_booking IS DISTINCT FROM EXCLUDED.total_booking + monthly_commission_payments.carried_booking)",
+            nativeQuery = true)
+    int reconcileFromRollup(@Param("month") int month,
+                            @Param("year") int year,
+                            @Param("monthStart") LocalDate monthStart,
+                            @Param("nextMonthStart") LocalDate nextMonthStart,
+                            @Param("fixedAmount") int fixedAmount,
+                            @Param("expiredAt") LocalDateTime expiredAt);
 }
@@ -2,6 +2,18 @@ package com.foodbookingplatform.repositories;
 
 import com.foodbookingplatform.models.entities.PayOSTransaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface PayOSTransactionRepository extends JpaRepository<PayOSTransaction, Long> {
+    @Query("SELECT t.orderCode FROM PayOSTransaction t WHERE t.orderCode IN :orderCodes")
+    List<Long> findExistingOrderCodes(@Param("orderCodes") Collection<Long> orderCodes);
+
+    // transactionDateTime is PayOS' "yyyy-MM-dd HH:mm:ss", so the text range is also the time range
+    @Query("SELECT t.id, t.orderCode, t.amount, t.transactionDateTime FROM PayOSTransaction t " +
+            "WHERE t.transactionDateTime >= :from AND t.transactionDateTime < :to")
+    List<Object[]> findSummariesByTransactionDateTime(@Param("from") String from, @Param("to") String to);
 }
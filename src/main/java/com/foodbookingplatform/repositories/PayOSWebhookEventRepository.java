@@ -0,0 +1,28 @@
+package com.foodbookingplatform.repositories;
+
+import com.foodbookingplatform.models.entities.PayOSWebhookEvent;
+import com.foodbookingplatform.models.enums.WebhookEventStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface PayOSWebhookEventRepository extends JpaRepository<PayOSWebhookEvent, Long> {
+    // Returns 0 when the order code has been delivered before
+    @Modifying
+    @Query(value = "INSERT INTO payos_webhook_event (order_code, payload, status, attempts, received_at) " +
+            "VALUES (:orderCode, :payload, 'PENDING', 0, :receivedAt) ON CONFLICT (order_code) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("orderCode") Long orderCode,
+                       @Param("payload") String payload,
+                       @Param("receivedAt") LocalDateTime receivedAt);
+
+    @Query("SELECT e.id FROM PayOSWebhookEvent e WHERE e.status = :status ORDER BY e.id")
+    List<Long> findIdsByStatus(@Param("status") WebhookEventStatus status, Pageable pageable);
+
+    List<PayOSWebhookEvent> findAllByIdInAndStatus(List<Long> ids, WebhookEventStatus status);
+}
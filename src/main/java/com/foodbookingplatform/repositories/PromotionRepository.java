@@ -6,14 +6,33 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface PromotionRepository extends JpaRepository<Promotion, Long>, JpaSpecificationExecutor<Promotion> {
-    List<Promotion> findByStartDateBeforeAndStatus(LocalDateTime now, OfferStatus status);
+    @Query("SELECT p.id, p.status, p.startDate, p.endDate FROM Promotion p WHERE p.status IN :statuses")
+    List<Object[]> findSchedulesByStatusIn(@Param("statuses") Collection<OfferStatus> statuses);
 
-    List<Promotion> findByEndDateBeforeAndStatus(LocalDateTime now, OfferStatus status);
+    @Modifying
+    @Query("UPDATE Promotion p SET p.status = :newStatus, p.modifiedDate = :now " +
+            "WHERE p.id IN :ids AND p.status = :currentStatus AND p.startDate <= :now")
+    int updateStatusOfStarted(@Param("ids") Collection<Long> ids,
+                              @Param("currentStatus") OfferStatus currentStatus,
+                              @Param("newStatus") OfferStatus newStatus,
+                              @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Promotion p SET p.status = :newStatus, p.modifiedDate = :now " +
+            "WHERE p.id IN :ids AND p.status = :currentStatus AND p.endDate <= :now")
+    int updateStatusOfEnded(@Param("ids") Collection<Long> ids,
+                            @Param("currentStatus") OfferStatus currentStatus,
+                            @Param("newStatus") OfferStatus newStatus,
+                            @Param("now") LocalDateTime now);
 
     Page<Promotion> getPromotionByLocation_Id(Long id, Pageable pageable);
 
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,5 +18,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Boolean existsByEmail(String email);
     Optional<User> findByUserName(String username);
     List<User> findAllByRoleName(String roleName);
+    @Query("SELECT u.id FROM User u WHERE u.role.name = :roleName ORDER BY u.id")
+    List<Long> findIdsByRoleName(@Param("roleName") String roleName);
+    // Returns {id, email}
+    @Query("SELECT u.id, u.email FROM User u WHERE u.id IN :ids")
+    List<Object[]> findEmailsByIdIn(@Param("ids") Collection<Long> ids);
     int countUsersByStatusEqualsAndRoleNameEquals(EntityStatus status, String roleName);
 }
@@ -4,12 +4,33 @@ import com.foodbookingplatform.models.entities.Voucher;
 import com.foodbookingplatform.models.enums.OfferStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface VoucherRepository extends JpaRepository<Voucher, Long>, JpaSpecificationExecutor<Voucher> {
     boolean existsByCode(String code);
-    List<Voucher> findVoucherByStartDateBeforeAndStatus(LocalDateTime now, OfferStatus status);
-    List<Voucher> findVoucherByEndDateBeforeAndStatus(LocalDateTime now, OfferStatus status);
+
+    @Query("SELECT v.id, v.status, v.startDate, v.endDate FROM Voucher v WHERE v.status IN :statuses")
+    List<Object[]> findSchedulesByStatusIn(@Param("statuses") Collection<OfferStatus> statuses);
+
+    @Modifying
+    @Query("UPDATE Voucher v SET v.status = :newStatus, v.modifiedDate = :now " +
+            "WHERE v.id IN :ids AND v.status = :currentStatus AND v.startDate <= :now")
+    int updateStatusOfStarted(@Param("ids") Collection<Long> ids,
+                              @Param("currentStatus") OfferStatus currentStatus,
+                              @Param("newStatus") OfferStatus newStatus,
+                              @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Voucher v SET v.status = :newStatus, v.modifiedDate = :now " +
+            "WHERE v.id IN :ids AND v.status = :currentStatus AND v.endDate <= :now")
+    int updateStatusOfEnded(@Param("ids") Collection<Long> ids,
+                            @Param("currentStatus") OfferStatus currentStatus,
+                            @Param("newStatus") OfferStatus newStatus,
+                            @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,12 @@
+package com.foodbookingplatform.services;
+
+import com.foodbookingplatform.models.events.LocationBookingStatusChangedEvent;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.file.AccessDeniedException;
+
+public interface BookingBoardService {
+    SseEmitter subscribe(Long locationId, Long lastCursor) throws AccessDeniedException;
+    void onBookingStatusChanged(LocationBookingStatusChangedEvent event);
+    void sendHeartbeats();
+}
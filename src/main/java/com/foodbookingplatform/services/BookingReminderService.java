@@ -0,0 +1,9 @@
+package com.foodbookingplatform.services;
+
+import com.foodbookingplatform.models.events.LocationBookingStatusChangedEvent;
+
+public interface BookingReminderService {
+    void onBookingStatusChanged(LocationBookingStatusChangedEvent event);
+    void loadUpcomingReminders();
+    void dispatchDueReminders();
+}
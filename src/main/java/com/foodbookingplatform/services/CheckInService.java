@@ -0,0 +1,12 @@
+package com.foodbookingplatform.services;
+
+import com.foodbookingplatform.models.entities.LocationBooking;
+import com.foodbookingplatform.models.payload.dto.checkin.CheckInResponse;
+
+import java.nio.file.AccessDeniedException;
+
+public interface CheckInService {
+    String generateCheckInToken(LocationBooking booking);
+    CheckInResponse checkIn(Long locationId, String token) throws AccessDeniedException;
+    void flushBufferedCheckIns();
+}
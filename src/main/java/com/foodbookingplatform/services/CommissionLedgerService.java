@@ -0,0 +1,15 @@
+package com.foodbookingplatform.services;
+
+import com.foodbookingplatform.models.events.LocationBookingStatusChangedEvent;
+import com.foodbookingplatform.models.payload.dto.billing.CommissionTotal;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+public interface CommissionLedgerService {
+    void onBookingStatusChanged(LocationBookingStatusChangedEvent event);
+    void reconcile();
+    Map<Long, CommissionTotal> sumMonthFromBookings(YearMonth month);
+    void writeMonthTotals(YearMonth month, List<Long> userIds, Map<Long, CommissionTotal> totals);
+}
@@ -0,0 +1,9 @@
+package com.foodbookingplatform.services;
+
+import com.foodbookingplatform.models.payload.dto.billing.CommissionReconciliationResponse;
+
+public interface CommissionReconciliationService {
+    CommissionReconciliationResponse reconcile(int month, int year, boolean dryRun);
+
+    void reconcileRecentPeriods();
+}
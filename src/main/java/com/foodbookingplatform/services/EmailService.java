@@ -5,4 +5,6 @@ import jakarta.mail.MessagingException;
 public interface EmailService {
     void sendEmail(String to, String subject, String content);
     void sendEmailWithQR(String to, String subject, String content, byte[] qrCodeImage);
+    void queueEmail(String to, String subject, String content);
+    void drainQueuedEmails();
 }
@@ -0,0 +1,15 @@
+package com.foodbookingplatform.services;
+
+import com.foodbookingplatform.models.enums.ExportFormat;
+import com.foodbookingplatform.models.enums.LocationBookingStatus;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.file.AccessDeniedException;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ExportService {
+    StreamingResponseBody exportPaymentHistories(Long locationId, ExportFormat format, LocalDate startDate, LocalDate endDate) throws AccessDeniedException;
+
+    StreamingResponseBody exportBookings(Long locationId, ExportFormat format, LocalDate startDate, LocalDate endDate, List<LocationBookingStatus> statuses) throws AccessDeniedException;
+}
@@ -0,0 +1,8 @@
+package com.foodbookingplatform.services;
+
+import com.foodbookingplatform.models.events.LocationBookingStatusChangedEvent;
+
+public interface LocationBookingExpiryService {
+    void onBookingStatusChanged(LocationBookingStatusChangedEvent event);
+    void expireDueBookings();
+}
@@ -14,6 +14,7 @@ public interface LocationBookingService {
     Page<LocationBookingResponse> getAllBookingByLocation(Long locationId, int pageNo, int pageSize, String sortBy, String sortDir, Map<String, Object> keyword) throws AccessDeniedException;
     Page<LocationBookingResponse> getAllBookingByUser(int pageNo, int pageSize, String sortBy, String sortDir, Map<String, Object> keyword);
     LocationBookingResponse createLocationBooking(LocationBookingRequest request);
+    LocationBookingResponse createWaitlistBooking(Long userId, LocationBookingRequest request);
     LocationBookingResponse cancelLocationBooking(Long bookingId);
     LocationBookingResponse approveLocationBooking(Long bookingId);
     LocationBookingResponse successLocationBooking(Long bookingId);
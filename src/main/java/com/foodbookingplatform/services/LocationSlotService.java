@@ -0,0 +1,16 @@
+package com.foodbookingplatform.services;
+
+import com.foodbookingplatform.models.events.LocationBookingStatusChangedEvent;
+import com.foodbookingplatform.models.payload.dto.slot.LocationSlotResponse;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+public interface LocationSlotService {
+    List<LocationSlotResponse> getAvailableSlots(Long locationId, LocalDate date);
+    int getRemainingSeats(Long locationId, LocalDate date, LocalTime time);
+    void evictLocation(Long locationId);
+    void evictDay(Long locationId, LocalDate date);
+    void onBookingStatusChanged(LocationBookingStatusChangedEvent event);
+}
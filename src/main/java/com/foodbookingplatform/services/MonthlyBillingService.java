@@ -0,0 +1,9 @@
+package com.foodbookingplatform.services;
+
+import com.foodbookingplatform.models.payload.dto.billing.BillingRunResponse;
+
+public interface MonthlyBillingService {
+    void calculateMonthlyBilling();
+
+    BillingRunResponse getLatestBillingRun();
+}
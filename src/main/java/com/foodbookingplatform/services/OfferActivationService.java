@@ -0,0 +1,15 @@
+package com.foodbookingplatform.services;
+
+import com.foodbookingplatform.models.enums.OfferTransition;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface OfferActivationService {
+    void registerHandler(OfferTransition transition, Consumer<List<Long>> handler);
+
+    void schedule(OfferTransition transition, Long id, LocalDateTime dueAt);
+
+    void fireDueTransitions();
+}
@@ -0,0 +1,22 @@
+package com.foodbookingplatform.services;
+
+import com.foodbookingplatform.models.payload.dto.payos.PayOSGatewayStatsResponse;
+import vn.payos.type.CheckoutResponseData;
+import vn.payos.type.PaymentData;
+import vn.payos.type.PaymentLinkData;
+import vn.payos.type.Webhook;
+import vn.payos.type.WebhookData;
+
+import java.util.List;
+
+public interface PayOSGateway {
+    CheckoutResponseData createPaymentLink(PaymentData paymentData) throws Exception;
+
+    PaymentLinkData getPaymentLinkInformation(long orderCode) throws Exception;
+
+    String confirmWebhook(String webhookUrl) throws Exception;
+
+    WebhookData verifyPaymentWebhookData(Webhook webhook) throws Exception;
+
+    List<PayOSGatewayStatsResponse> getStats();
+}
@@ -4,7 +4,11 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.foodbookingplatform.models.payload.dto.payos.CreatePaymentDTO;
 import com.foodbookingplatform.models.payload.dto.payos.WebhookUrlDTO;
 
+import java.time.YearMonth;
+
 public interface PayOSService {
     ObjectNode createPayment(CreatePaymentDTO createPaymentDTO);
     ObjectNode confirmWebhook(WebhookUrlDTO webhookUrlDTO);
+    void evictCommissionLinks(long userId, YearMonth period);
+    void purgeExpiredCommissionLinks();
 }
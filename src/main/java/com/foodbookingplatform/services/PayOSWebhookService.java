@@ -0,0 +1,10 @@
+package com.foodbookingplatform.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import vn.payos.type.WebhookData;
+
+public interface PayOSWebhookService {
+    void enqueue(WebhookData data) throws JsonProcessingException;
+
+    void processPendingEvents();
+}
@@ -7,6 +7,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.foodbookingplatform.models.entities.MonthlyCommissionPayment;
 import com.foodbookingplatform.models.enums.PaymentStatus;
+import com.foodbookingplatform.models.events.LocationBookingStatusChangedEvent;
 import com.foodbookingplatform.models.payload.dto.paymenthistory.LocationRevenueReportPaginationResponse;
 import com.foodbookingplatform.models.payload.dto.paymenthistory.LocationRevenueReportResponse;
 import com.foodbookingplatform.models.payload.dto.paymenthistory.MonthlyRevenueResponse;
@@ -31,6 +32,8 @@ public interface PaymentHistoryService extends BaseService<PaymentHistoryRequest
 
     List<MonthlyRevenueResponse> getTotalRevenueOfSystemForYear(int year);
 
+    void onBookingStatusChanged(LocationBookingStatusChangedEvent event);
+
     List<RecentPaymentResponse> getRecentPaymentHistories(PaymentStatus status, int top);
 
     LocationRevenueReportPaginationResponse getLocationRevenueReports(int pageNo, int pageSize, String sortBy, String sortDir, int month, int year);
@@ -0,0 +1,20 @@
+package com.foodbookingplatform.services;
+
+import com.foodbookingplatform.models.entities.DiningTable;
+import com.foodbookingplatform.models.entities.LocationBooking;
+import com.foodbookingplatform.models.events.LocationBookingStatusChangedEvent;
+import com.foodbookingplatform.models.payload.dto.diningtable.DiningTableRequest;
+import com.foodbookingplatform.models.payload.dto.diningtable.DiningTableResponse;
+
+import java.nio.file.AccessDeniedException;
+import java.util.List;
+import java.util.Set;
+
+public interface TableInventoryService {
+    List<DiningTableResponse> getTablesOfLocation(Long locationId);
+    DiningTableResponse addTable(DiningTableRequest request) throws AccessDeniedException;
+    DiningTableResponse updateTable(DiningTableRequest request) throws AccessDeniedException;
+    void deleteTable(Long id) throws AccessDeniedException;
+    Set<DiningTable> allocateTables(LocationBooking booking);
+    void onBookingStatusChanged(LocationBookingStatusChangedEvent event);
+}
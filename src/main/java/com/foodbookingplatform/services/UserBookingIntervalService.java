@@ -0,0 +1,9 @@
+package com.foodbookingplatform.services;
+
+import com.foodbookingplatform.models.entities.LocationBooking;
+import com.foodbookingplatform.models.events.LocationBookingStatusChangedEvent;
+
+public interface UserBookingIntervalService {
+    void reserve(LocationBooking booking);
+    void onBookingStatusChanged(LocationBookingStatusChangedEvent event);
+}
@@ -0,0 +1,14 @@
+package com.foodbookingplatform.services;
+
+import com.foodbookingplatform.models.events.LocationBookingStatusChangedEvent;
+import com.foodbookingplatform.models.payload.dto.waitlist.WaitlistRequest;
+import com.foodbookingplatform.models.payload.dto.waitlist.WaitlistResponse;
+
+import java.util.List;
+
+public interface WaitlistService {
+    WaitlistResponse joinWaitlist(WaitlistRequest request);
+    void leaveWaitlist(Long waitlistId);
+    List<WaitlistResponse> getWaitlistOfUser();
+    void onBookingStatusChanged(LocationBookingStatusChangedEvent event);
+}
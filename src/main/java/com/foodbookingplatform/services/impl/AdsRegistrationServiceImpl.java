@@ -3,6 +3,7 @@ package com.foodbookingplatform.services.impl;
 import com.foodbookingplatform.models.entities.*;
 import com.foodbookingplatform.models.enums.AdsType;
 import com.foodbookingplatform.models.enums.OfferStatus;
+import com.foodbookingplatform.models.enums.OfferTransition;
 import com.foodbookingplatform.models.exception.ResourceNotFoundException;
 import com.foodbookingplatform.models.exception.RestaurantBookingException;
 import com.foodbookingplatform.models.payload.dto.adsregistration.AdsRegistrationAddEditResponse;
@@ -15,20 +16,24 @@ import com.foodbookingplatform.repositories.AdsRepository;
 import com.foodbookingplatform.repositories.LocationRepository;
 import com.foodbookingplatform.repositories.UserRepository;
 import com.foodbookingplatform.services.AdsRegistrationService;
+import com.foodbookingplatform.services.OfferActivationService;
 import com.foodbookingplatform.utils.DateTimeUtil;
 import com.foodbookingplatform.utils.SecurityUtils;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.nio.file.AccessDeniedException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -40,6 +45,18 @@ public class AdsRegistrationServiceImpl implements AdsRegistrationService {
     private final AdsRepository adsRepository;
     private final UserRepository userRepository;
     private final ModelMapper mapper;
+    private final OfferActivationService offerActivationService;
+
+    @PostConstruct
+    public void registerTransitionHandlers() {
+        offerActivationService.registerHandler(OfferTransition.ADS_REGISTRATION_EXPIRE, this::expireAdsRegistrations);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleTransitions() {
+        List<Object[]> expireDates = adsRegistrationRepository.findExpireDatesByStatus(OfferStatus.ACTIVE);
+        expireDates.forEach(row -> offerActivationService.schedule(OfferTransition.ADS_REGISTRATION_EXPIRE, (Long) row[0], (LocalDateTime) row[1]));
+    }
 
     @Override
     public AdsRegistrationAddEditResponse addAdsRegistration(AdsRegistrationAddRequest adsRegistrationRequest) throws AccessDeniedException {
@@ -75,7 +92,9 @@ public class AdsRegistrationServiceImpl implements AdsRegistrationService {
 
         locationRepository.save(location);
 
-        return mapper.map(adsRegistrationRepository.save(adsRegistration), AdsRegistrationAddEditResponse.class);
+        AdsRegistration savedAdsRegistration = adsRegistrationRepository.save(adsRegistration);
+        offerActivationService.schedule(OfferTransition.ADS_REGISTRATION_EXPIRE, savedAdsRegistration.getId(), savedAdsRegistration.getExpireDate());
+        return mapper.map(savedAdsRegistration, AdsRegistrationAddEditResponse.class);
     }
 
     @Override
@@ -121,6 +140,8 @@ public class AdsRegistrationServiceImpl implements AdsRegistrationService {
         if(offerStatus.equals(OfferStatus.INACTIVE) || offerStatus.equals(OfferStatus.ACTIVE)){
             handleAdRegistrationUpdateStatus(adsRegistration.getAds().getType(), offerStatus, adsRegistration);
             adsRegistration.setStatus(offerStatus);
+            if (offerStatus.equals(OfferStatus.ACTIVE))
+                offerActivationService.schedule(OfferTransition.ADS_REGISTRATION_EXPIRE, adsRegistration.getId(), adsRegistration.getExpireDate());
         } else if (adsRegistration.getStatus().equals(OfferStatus.DISABLED) || adsRegistration.getStatus().equals(OfferStatus.EXPIRE)) {
             throw new RestaurantBookingException(HttpStatus.BAD_REQUEST, "You can only update ads because this ads can be DISABLED or EXPIRE");
         } else {
@@ -148,9 +169,10 @@ public class AdsRegistrationServiceImpl implements AdsRegistrationService {
 
     }
 
-    @Scheduled(fixedRate = 10000)
-    public void handleAdsRegistrationExpire() {
-        List<AdsRegistration> adsRegistrationActive = adsRegistrationRepository.findByExpireDateBeforeAndStatus(DateTimeUtil.nowInVietnam(), OfferStatus.ACTIVE);
+    // Expiry also takes the ad off its location, so the registrations are loaded instead of bulk updated
+    private void expireAdsRegistrations(List<Long> ids) {
+        List<AdsRegistration> adsRegistrationActive = adsRegistrationRepository.findAllByIdInAndStatusAndExpireDateLessThanEqual(
+                ids, OfferStatus.ACTIVE, DateTimeUtil.nowInVietnam());
         adsRegistrationActive.forEach(adsRegistration -> {
             adsRegistration.setStatus(OfferStatus.EXPIRE);
             handleAdRegistrationUpdateStatus(adsRegistration.getAds().getType(), OfferStatus.EXPIRE, adsRegistration);
@@ -0,0 +1,178 @@
+package com.foodbookingplatform.services.impl;
+
+import com.foodbookingplatform.models.events.LocationBookingStatusChangedEvent;
+import com.foodbookingplatform.models.exception.RestaurantBookingException;
+import com.foodbookingplatform.models.payload.dto.bookingboard.BookingBoardEvent;
+import com.foodbookingplatform.repositories.UserRepository;
+import com.foodbookingplatform.services.BookingBoardService;
+import com.foodbookingplatform.utils.DateTimeUtil;
+import com.foodbookingplatform.utils.SecurityUtils;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.file.AccessDeniedException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@RequiredArgsConstructor
+public class BookingBoardServiceImpl implements BookingBoardService {
+
+    @Value("${booking-board.replay-size}")
+    private int replaySize;
+    @Value("${booking-board.emitter-timeout-minutes}")
+    private long emitterTimeoutMinutes;
+
+    private final UserRepository userRepository;
+
+    private final Map<Long, BoardChannel> channels = new ConcurrentHashMap<>();
+    // Cursors start from the boot time, so a cursor handed out before a restart is always older than the new ones
+    private final long firstCursor = System.currentTimeMillis() * 1000;
+    private final AtomicLong cursorSequence = new AtomicLong(firstCursor);
+
+    @Override
+    public SseEmitter subscribe(Long locationId, Long lastCursor) throws AccessDeniedException {
+        if (!SecurityUtils.isAuthorizeLocation(locationId, userRepository))
+            throw new RestaurantBookingException(HttpStatus.NOT_FOUND, "You dont have this location with id: " + locationId);
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMinutes * 60 * 1000);
+        BoardChannel channel = channels.computeIfAbsent(locationId, id -> new BoardChannel());
+        BoardSubscriber subscriber = new BoardSubscriber(emitter);
+        emitter.onCompletion(() -> channel.subscribers.remove(subscriber));
+        emitter.onTimeout(() -> channel.subscribers.remove(subscriber));
+        emitter.onError(error -> channel.subscribers.remove(subscriber));
+
+        // Held until the replay is out, so live events queued meanwhile follow it instead of overtaking it
+        synchronized (subscriber) {
+            boolean resync = false;
+            // Replay and registration happen under the channel lock, so no event is missed or queued twice in between
+            synchronized (channel) {
+                if (lastCursor != null) {
+                    if (lastCursor < firstCursor || lastCursor < channel.droppedUpTo) {
+                        resync = true;
+                    } else {
+                        for (BookingBoardEvent event : channel.recentEvents) {
+                            if (event.getCursor() > lastCursor) subscriber.pending.add(event);
+                        }
+                    }
+                }
+                channel.subscribers.add(subscriber);
+            }
+            if (resync) {
+                try {
+                    emitter.send(SseEmitter.event().name("resync").data("Missed events are no longer available, please reload the bookings"));
+                } catch (IOException e) {
+                    channel.subscribers.remove(subscriber);
+                    emitter.completeWithError(e);
+                    return emitter;
+                }
+            }
+            flush(channel, subscriber);
+        }
+        return emitter;
+    }
+
+    @Override
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingStatusChanged(LocationBookingStatusChangedEvent event) {
+        BoardChannel channel = channels.get(event.getLocationId());
+        if (channel == null) return;
+
+        synchronized (channel) {
+            BookingBoardEvent boardEvent = BookingBoardEvent.builder()
+                    .cursor(cursorSequence.incrementAndGet())
+                    .bookingId(event.getBookingId())
+                    .bookingDate(event.getBookingDate())
+                    .bookingTime(event.getBookingTime())
+                    .numberOfGuest(event.getNumberOfGuest())
+                    .amount(event.getAmount())
+                    .previousStatus(event.getPreviousStatus())
+                    .newStatus(event.getNewStatus())
+                    .occurredAt(DateTimeUtil.nowInVietnam())
+                    .build();
+
+            channel.recentEvents.addLast(boardEvent);
+            if (channel.recentEvents.size() > replaySize) channel.droppedUpTo = channel.recentEvents.removeFirst().getCursor();
+
+            // Queued in cursor order here, written out below without the channel lock so a slow client holds up no one else
+            for (BoardSubscriber subscriber : channel.subscribers) subscriber.pending.add(boardEvent);
+        }
+        for (BoardSubscriber subscriber : channel.subscribers) flush(channel, subscriber);
+    }
+
+    // Keeps idle connections open through proxies and weeds out clients that went away silently
+    @Override
+    @Scheduled(fixedRate = 25000)
+    public void sendHeartbeats() {
+        channels.values().forEach(channel -> {
+            for (BoardSubscriber subscriber : channel.subscribers) {
+                synchronized (subscriber) {
+                    try {
+                        subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } catch (IOException | IllegalStateException e) {
+                        drop(channel, subscriber);
+                    }
+                }
+            }
+        });
+    }
+
+    // Whichever thread gets the subscriber's lock writes out everything queued for it so far
+    private void flush(BoardChannel channel, BoardSubscriber subscriber) {
+        synchronized (subscriber) {
+            BookingBoardEvent event;
+            while ((event = subscriber.pending.poll()) != null) {
+                try {
+                    send(subscriber.emitter, event);
+                } catch (IOException | IllegalStateException e) {
+                    drop(channel, subscriber);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void drop(BoardChannel channel, BoardSubscriber subscriber) {
+        channel.subscribers.remove(subscriber);
+        subscriber.pending.clear();
+    }
+
+    private void send(SseEmitter emitter, BookingBoardEvent event) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(String.valueOf(event.getCursor()))
+                .name("booking")
+                .data(event));
+    }
+
+    private static final class BoardChannel {
+        private final List<BoardSubscriber> subscribers = new CopyOnWriteArrayList<>();
+        private final Deque<BookingBoardEvent> recentEvents = new ArrayDeque<>();
+        private long droppedUpTo;
+    }
+
+    private static final class BoardSubscriber {
+        private final SseEmitter emitter;
+        private final Queue<BookingBoardEvent> pending = new ConcurrentLinkedQueue<>();
+
+        BoardSubscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.foodbookingplatform.services.impl;
+
+import com.foodbookingplatform.models.enums.LocationBookingStatus;
+import com.foodbookingplatform.models.events.LocationBookingStatusChangedEvent;
+import com.foodbookingplatform.repositories.BookingDailyRollupRepository;
+import com.foodbookingplatform.services.BookingDailyRollupService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class BookingDailyRollupServiceImpl implements BookingDailyRollupService {
+
+    @Value("${booking-rollup.reconcile-lookback-days}")
+    private long reconcileLookbackDays;
+
+    private final BookingDailyRollupRepository rollupRepository;
+
+    // Runs inside the transaction that changed the booking, so the rollup moves together with the raw row
+    @Override
+    @EventListener
+    @Transactional
+    public void onBookingStatusChanged(LocationBookingStatusChangedEvent event) {
+        if (event.getPreviousStatus() != null) {
+            // Commission is only charged when a booking succeeds, so earlier status buckets never counted it
+            float previousCommission = event.getPreviousStatus() == LocationBookingStatus.SUCCESSFUL ? event.getCommission() : 0;
+            addToRollup(event, event.getPreviousStatus(), -1, -previousCommission);
+        }
+        addToRollup(event, event.getNewStatus(), 1, event.getCommission());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() == 0) {
+            log.info("Booking daily rollup is empty, backfilling from raw bookings...");
+            reconcileFrom(LocalDate.EPOCH);
+        }
+    }
+
+    @Override
+    @Scheduled(cron = "0 30 2 * * ?")
+    @Transactional
+    public void reconcile() {
+        reconcileFrom(LocalDate.now(ZoneId.of("Asia/Ho_Chi_Minh")).minusDays(reconcileLookbackDays));
+    }
+
+    private void reconcileFrom(LocalDate fromDate) {
+        int repaired = rollupRepository.reconcileFrom(fromDate);
+        int removed = rollupRepository.deleteOrphanedFrom(fromDate);
+        log.info("Reconciled booking daily rollup from {}: {} rows repaired, {} orphaned rows removed", fromDate, repaired, removed);
+    }
+
+    private void addToRollup(LocationBookingStatusChangedEvent event, LocationBookingStatus status, int sign, float commission) {
+        rollupRepository.addToRollup(
+                event.getLocationId(),
+                event.getBookingDate(),
+                status.name(),
+                sign,
+                (long) sign * event.getNumberOfGuest(),
+                (double) sign * event.getAmount(),
+                commission);
+    }
+}
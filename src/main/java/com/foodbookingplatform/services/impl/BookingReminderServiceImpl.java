@@ -0,0 +1,217 @@
+package com.foodbookingplatform.services.impl;
+
+import com.foodbookingplatform.models.entities.BookingReminder;
+import com.foodbookingplatform.models.entities.LocationBooking;
+import com.foodbookingplatform.models.enums.LocationBookingStatus;
+import com.foodbookingplatform.models.enums.ReminderType;
+import com.foodbookingplatform.models.events.LocationBookingStatusChangedEvent;
+import com.foodbookingplatform.repositories.BookingReminderRepository;
+import com.foodbookingplatform.services.BookingReminderService;
+import com.foodbookingplatform.services.EmailService;
+import com.foodbookingplatform.utils.DateTimeUtil;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class BookingReminderServiceImpl implements BookingReminderService {
+
+    private static final ZoneId VIETNAM_ZONE = ZoneId.of("Asia/Ho_Chi_Minh");
+    private static final int BATCH_SIZE = 200;
+    // First load also picks up reminders that fell due while the application was down
+    private static final LocalDateTime LOAD_START = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    @Value("${booking-reminder.load-window-minutes}")
+    private long loadWindowMinutes;
+
+    private final BookingReminderRepository reminderRepository;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+
+    // The table is the persistent queue; only the next load window is held here, ordered by reminder time
+    private final DelayQueue<DueReminder> dueReminders = new DelayQueue<>();
+    private volatile LocalDateTime loadedUntil = LOAD_START;
+
+    // Runs inside the transaction that changed the booking, so reminders appear and disappear with the status
+    @Override
+    @EventListener
+    @Transactional
+    public void onBookingStatusChanged(LocationBookingStatusChangedEvent event) {
+        if (event.getPreviousStatus() == LocationBookingStatus.CONFIRMED) {
+            reminderRepository.deleteByBookingId(event.getBookingId());
+        }
+        if (event.getNewStatus() != LocationBookingStatus.CONFIRMED) return;
+
+        LocalDateTime bookingAt = LocalDateTime.of(event.getBookingDate(), event.getBookingTime());
+        LocalDateTime now = DateTimeUtil.nowInVietnam();
+        for (ReminderType type : ReminderType.values()) {
+            LocalDateTime remindAt = bookingAt.minusMinutes(type.getMinutesBefore());
+            if (!remindAt.isAfter(now)) continue;
+            BookingReminder reminder = reminderRepository.save(new BookingReminder(null, event.getBookingId(), type, remindAt));
+            offerAfterCommit(reminder);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillFromConfirmedBookings() {
+        LocalDateTime now = DateTimeUtil.nowInVietnam();
+        int inserted = reminderRepository.insertMissingForConfirmedBookings(now.toLocalDate(), now);
+        log.info("Booking reminders backfilled from confirmed bookings: {} reminders added", inserted);
+    }
+
+    // Pull the next window of reminders from the table; each run only reads rows it has not loaded yet
+    @Override
+    @Scheduled(fixedDelay = 60000, initialDelay = 30000)
+    public void loadUpcomingReminders() {
+        LocalDateTime from = loadedUntil;
+        LocalDateTime to = DateTimeUtil.nowInVietnam().plusMinutes(loadWindowMinutes);
+        if (!to.isAfter(from)) return;
+        // Move the watermark first: a reminder committed after this point is offered by its own transaction
+        loadedUntil = to;
+        for (Object[] row : reminderRepository.findDueBetween(from, to)) {
+            dueReminders.offer(new DueReminder((Long) row[0], toEpochMillis((LocalDateTime) row[1])));
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelay = 5000)
+    public void dispatchDueReminders() {
+        List<DueReminder> batch = new ArrayList<>();
+        DueReminder reminder;
+        while ((reminder = dueReminders.poll()) != null) {
+            batch.add(reminder);
+            if (batch.size() == BATCH_SIZE) {
+                sendBatch(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) sendBatch(batch);
+    }
+
+    // Each batch deletes its reminders in its own transaction and mails only after that commit, so a failed
+    // batch is offered again and a committed one is never mailed twice.
+    // Reminders of bookings that are no longer confirmed or have already started are dropped without a mail
+    private void sendBatch(List<DueReminder> batch) {
+        Set<Long> reminderIds = new LinkedHashSet<>();
+        batch.forEach(reminder -> reminderIds.add(reminder.id()));
+        List<ReminderMail> mails;
+        try {
+            mails = transactionTemplate.execute(status -> {
+                LocalDateTime now = DateTimeUtil.nowInVietnam();
+                List<ReminderMail> dueMails = new ArrayList<>();
+                for (Object[] row : reminderRepository.findWithBookingByIdInAndStatus(reminderIds, LocationBookingStatus.CONFIRMED)) {
+                    LocationBooking booking = (LocationBooking) row[1];
+                    if (LocalDateTime.of(booking.getBookingDate(), booking.getBookingTime()).isAfter(now))
+                        dueMails.add(reminderMail(booking, (ReminderType) row[0]));
+                }
+                reminderRepository.deleteByIdIn(reminderIds);
+                return dueMails;
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to dispatch {} booking reminders, retrying on the next run", batch.size(), e);
+            dueReminders.addAll(batch);
+            return;
+        }
+        if (mails != null) mails.forEach(mail -> emailService.sendEmail(mail.to(), mail.subject(), mail.content()));
+    }
+
+    private void offerAfterCommit(BookingReminder reminder) {
+        DueReminder dueReminder = new DueReminder(reminder.getId(), toEpochMillis(reminder.getRemindAt()));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (reminder.getRemindAt().isBefore(loadedUntil)) dueReminders.offer(dueReminder);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (reminder.getRemindAt().isBefore(loadedUntil)) dueReminders.offer(dueReminder);
+            }
+        });
+    }
+
+    // Built inside the batch transaction, the booking's user and location are not loaded outside it
+    private ReminderMail reminderMail(LocationBooking locationBooking, ReminderType type) {
+        String subject = type == ReminderType.DAY_BEFORE
+                ? "[SkedEat Nhắc Lịch Đặt Chỗ]: Bạn Có Lịch Đặt Chỗ Vào Ngày Mai!"
+                : "[SkedEat Nhắc Lịch Đặt Chỗ]: Lịch Đặt Chỗ Của Bạn Sẽ Bắt Đầu Sau 1 Giờ Nữa!";
+        String content = "<html>" +
+                "<head>" +
+                "<style>" +
+                "table { width: 100%; border-collapse: collapse; }" +
+                "th, td { padding: 10px; border: 1px solid #ddd; text-align: left; }" +
+                "th { background-color: #f2f2f2; }" +
+                "body { font-family: Arial, sans-serif; }" +
+                "</style>" +
+                "</head>" +
+                "<body>" +
+                String.format(
+                        "Kính gửi %s,<br><br>Chúng tôi xin nhắc bạn về lịch đặt chỗ sắp tới tại nhà hàng <b>%s</b>.<br><br>" +
+                                "<strong>Chi tiết Đặt Chỗ:</strong><br>" +
+                                "<table>" +
+                                "<tr style='background-color: #f2f2f2;'><th>Thông Tin</th><th>Giá Trị</th></tr>" +
+                                "<tr><td>Địa điểm</td><td>%s</td></tr>" +
+                                "<tr><td>Ngày</td><td>%s</td></tr>" +
+                                "<tr><td>Giờ</td><td>%s</td></tr>" +
+                                "<tr><td>Số lượng người lớn</td><td>%d</td></tr>" +
+                                "<tr><td>Số lượng trẻ em</td><td>%d</td></tr>" +
+                                "</table><br>" +
+                                "Nếu bạn không thể đến, xin vui lòng hủy đơn đặt chỗ để nhường chỗ cho khách khác.<br><br>" +
+                                "Trân trọng,<br>" +
+                                "SkedEat<br>",
+                        locationBooking.getUser().getFullName(),
+                        locationBooking.getLocation().getName(),
+                        locationBooking.getLocation().getAddress(),
+                        locationBooking.getBookingDate(),
+                        locationBooking.getBookingTime(),
+                        locationBooking.getNumberOfAdult(),
+                        locationBooking.getNumberOfChildren()
+                ) +
+                "</body>" +
+                "</html>";
+
+        return new ReminderMail(locationBooking.getUser().getEmail(), subject, content);
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(VIETNAM_ZONE).toInstant().toEpochMilli();
+    }
+
+    private record ReminderMail(String to, String subject, String content) {
+    }
+
+    private record DueReminder(Long id, long dueMillis) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueMillis, ((DueReminder) other).dueMillis);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.foodbookingplatform.services.impl;
+
+import com.foodbookingplatform.models.entities.LocationBooking;
+import com.foodbookingplatform.models.enums.LocationBookingStatus;
+import com.foodbookingplatform.models.events.LocationBookingStatusChangedEvent;
+import com.foodbookingplatform.models.exception.RestaurantBookingException;
+import com.foodbookingplatform.models.payload.dto.checkin.CheckInResponse;
+import com.foodbookingplatform.repositories.LocationBookingRepository;
+import com.foodbookingplatform.repositories.UserRepository;
+import com.foodbookingplatform.services.CheckInService;
+import com.foodbookingplatform.utils.DateTimeUtil;
+import com.foodbookingplatform.utils.SecurityUtils;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CheckInServiceImpl implements CheckInService {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String CHECKED_IN = "CHECKED_IN";
+    private static final String QUEUED = "QUEUED";
+    private static final int FLUSH_BATCH_SIZE = 200;
+
+    @Value("${check-in.token-secret-key}")
+    private String tokenSecretKey;
+    @Value("${check-in.buffer-capacity}")
+    private int bufferCapacity;
+    @Value("${commission-amount}")
+    private String commissionAmount;
+
+    private final LocationBookingRepository locationBookingRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    // Check-ins accepted while the database was unreachable, written by flushBufferedCheckIns once it is back
+    private final Queue<BufferedCheckIn> bufferedCheckIns = new ConcurrentLinkedQueue<>();
+    private final Set<Long> bufferedBookingIds = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger bufferedCount = new AtomicInteger();
+    private final Map<String, Set<Long>> authorizedLocations = new ConcurrentHashMap<>();
+
+    // Token = base64url(bookingId|locationId|date|time) + "." + base64url(HMAC-SHA256 of that payload)
+    @Override
+    public String generateCheckInToken(LocationBooking booking) {
+        String payload = booking.getId() + "|" + booking.getLocation().getId() + "|" + booking.getBookingDate() + "|" + booking.getBookingTime();
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + "." + encoder.encodeToString(sign(payload));
+    }
+
+    @Override
+    public CheckInResponse checkIn(Long locationId, String token) throws AccessDeniedException {
+        if (!isAuthorizedLocation(locationId))
+            throw new RestaurantBookingException(HttpStatus.NOT_FOUND, "You dont have this location with id: " + locationId);
+
+        CheckInToken checkInToken = verify(token);
+        if (!checkInToken.locationId().equals(locationId))
+            throw new RestaurantBookingException(HttpStatus.BAD_REQUEST, "This booking belongs to another restaurant!");
+        LocalDateTime now = DateTimeUtil.nowInVietnam();
+        if (!checkInToken.bookingDate().isEqual(now.toLocalDate()))
+            throw new RestaurantBookingException(HttpStatus.BAD_REQUEST, "This booking is not for today!");
+        if (bufferedBookingIds.contains(checkInToken.bookingId()))
+            return mapCheckInResponse(checkInToken, QUEUED, now);
+
+        Boolean checkedIn;
+        try {
+            checkedIn = transactionTemplate.execute(status -> applyCheckIn(checkInToken.bookingId(), locationId, now));
+        } catch (CannotCreateTransactionException | DataAccessResourceFailureException | TransientDataAccessException e) {
+            log.warn("Database unavailable, buffering check-in of booking {}: {}", checkInToken.bookingId(), e.getMessage());
+            buffer(new BufferedCheckIn(checkInToken.bookingId(), locationId, now));
+            return mapCheckInResponse(checkInToken, QUEUED, now);
+        }
+
+        if (!Boolean.TRUE.equals(checkedIn))
+            throw new RestaurantBookingException(HttpStatus.BAD_REQUEST, "This booking has already been checked in or is not confirmed!");
+        return mapCheckInResponse(checkInToken, CHECKED_IN, now);
+    }
+
+    @Override
+    @Scheduled(fixedDelay = 2000)
+    public void flushBufferedCheckIns() {
+        for (int i = 0; i < FLUSH_BATCH_SIZE; i++) {
+            BufferedCheckIn checkIn = bufferedCheckIns.peek();
+            if (checkIn == null) return;
+            try {
+                Boolean checkedIn = transactionTemplate.execute(status -> applyCheckIn(checkIn.bookingId(), checkIn.locationId(), checkIn.checkedInAt()));
+                if (!Boolean.TRUE.equals(checkedIn))
+                    log.warn("Buffered check-in of booking {} was not applied, booking is no longer confirmed", checkIn.bookingId());
+            } catch (CannotCreateTransactionException | DataAccessResourceFailureException | TransientDataAccessException e) {
+                // Still down, keep the entry at the head and retry on the next run
+                return;
+            } catch (RuntimeException e) {
+                // Would fail the same way on every retry and hold back every check-in behind it, so it is dropped
+                log.error("Dropping buffered check-in of booking {} at location {} checked in at {}",
+                        checkIn.bookingId(), checkIn.locationId(), checkIn.checkedInAt(), e);
+            }
+            bufferedCheckIns.poll();
+            bufferedBookingIds.remove(checkIn.bookingId());
+            bufferedCount.decrementAndGet();
+        }
+    }
+
+    private boolean applyCheckIn(Long bookingId, Long locationId, LocalDateTime checkedInAt) {
+        int updated = locationBookingRepository.checkIn(bookingId, locationId, LocationBookingStatus.CONFIRMED,
+                LocationBookingStatus.SUCCESSFUL, Float.parseFloat(commissionAmount), checkedInAt);
+        if (updated == 0) return false;
+
+        List<Object[]> snapshots = locationBookingRepository.findSnapshotsByIdInAndStatus(List.of(bookingId), LocationBookingStatus.SUCCESSFUL);
+        snapshots.forEach(row -> eventPublisher.publishEvent(new LocationBookingStatusChangedEvent(
+                (Long) row[0], (Long) row[1], (Long) row[2], (LocalDate) row[3], (LocalTime) row[4],
+                (Integer) row[5], (Float) row[6], (Float) row[7], LocationBookingStatus.CONFIRMED, LocationBookingStatus.SUCCESSFUL)));
+        return true;
+    }
+
+    // Falls back to the last successful answer for this admin when the database cannot be reached
+    private boolean isAuthorizedLocation(Long locationId) throws AccessDeniedException {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        try {
+            boolean authorized = SecurityUtils.isAuthorizeLocation(locationId, userRepository);
+            if (authorized) authorizedLocations.computeIfAbsent(username, name -> ConcurrentHashMap.newKeySet()).add(locationId);
+            return authorized;
+        } catch (CannotCreateTransactionException | DataAccessResourceFailureException | TransientDataAccessException e) {
+            Set<Long> locationIds = authorizedLocations.get(username);
+            if (locationIds == null) throw e;
+            return locationIds.contains(locationId);
+        }
+    }
+
+    private void buffer(BufferedCheckIn checkIn) {
+        if (!bufferedBookingIds.add(checkIn.bookingId())) return;
+        if (bufferedCount.incrementAndGet() > bufferCapacity) {
+            bufferedCount.decrementAndGet();
+            bufferedBookingIds.remove(checkIn.bookingId());
+            throw new RestaurantBookingException(HttpStatus.SERVICE_UNAVAILABLE, "Check-in is temporarily unavailable, please try again later!");
+        }
+        bufferedCheckIns.offer(checkIn);
+    }
+
+    private CheckInToken verify(String token) {
+        int separator = token == null ? -1 : token.indexOf('.');
+        if (separator < 0)
+            throw new RestaurantBookingException(HttpStatus.BAD_REQUEST, "Invalid check-in code!");
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            String payload = new String(decoder.decode(token.substring(0, separator)), StandardCharsets.UTF_8);
+            byte[] signature = decoder.decode(token.substring(separator + 1));
+            if (!MessageDigest.isEqual(sign(payload), signature))
+                throw new RestaurantBookingException(HttpStatus.BAD_REQUEST, "Invalid check-in code!");
+
+            String[] parts = payload.split("\\|");
+            return new CheckInToken(Long.parseLong(parts[0]), Long.parseLong(parts[1]), LocalDate.parse(parts[2]), LocalTime.parse(parts[3]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException | DateTimeParseException e) {
+            throw new RestaurantBookingException(HttpStatus.BAD_REQUEST, "Invalid check-in code!");
+        }
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(tokenSecretKey.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign check-in token", e);
+        }
+    }
+
+    private CheckInResponse mapCheckInResponse(CheckInToken token, String status, LocalDateTime checkedInAt) {
+        return CheckInResponse.builder()
+                .bookingId(token.bookingId())
+                .bookingDate(token.bookingDate())
+                .bookingTime(token.bookingTime())
+                .status(status)
+                .checkedInAt(checkedInAt)
+                .build();
+    }
+
+    private record CheckInToken(Long bookingId, Long locationId, LocalDate bookingDate, LocalTime bookingTime) {
+    }
+
+    private record BufferedCheckIn(Long bookingId, Long locationId, LocalDateTime checkedInAt) {
+    }
+}
@@ -0,0 +1,149 @@
+package com.foodbookingplatform.services.impl;
+
+import com.foodbookingplatform.models.enums.LocationBookingStatus;
+import com.foodbookingplatform.models.events.LocationBookingStatusChangedEvent;
+import com.foodbookingplatform.models.payload.dto.billing.CommissionTotal;
+import com.foodbookingplatform.repositories.LocationBookingRepository;
+import com.foodbookingplatform.repositories.MonthlyCommissionPaymentRepository;
+import com.foodbookingplatform.services.CommissionLedgerService;
+import com.foodbookingplatform.utils.DateTimeUtil;
+
+import jakarta.annotation.PostConstruct;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CommissionLedgerServiceImpl implements CommissionLedgerService {
+
+    // The upserts below rely on this constraint; ddl-auto only logs a failure to add it over legacy duplicates
+    private static final String MONTH_CONSTRAINT = "uk_monthly_commission_payments_user_month_year";
+    private static final String COUNT_MONTH_CONSTRAINT =
+            "SELECT COUNT(*) FROM pg_constraint WHERE conname = '" + MONTH_CONSTRAINT + "'";
+    // Same rules as reconcileFromRollup: paid rows stay as paid, carried commission is kept, equal rows are untouched
+    private static final String UPSERT_MONTH_TOTALS =
+            "INSERT INTO monthly_commission_payments (user_id, month, year, fixed_amount, total_amount, total_booking, is_paid, expired_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, false, ?) " +
+            "ON CONFLICT (user_id, month, year) DO UPDATE SET " +
+            "total_amount = EXCLUDED.total_amount + monthly_commission_payments.carried_amount, " +
+            "total_booking = EXCLUDED.total_booking + monthly_commission_payments.carried_booking " +
+            "WHERE monthly_commission_payments.is_paid = false " +
+            "AND (monthly_commission_payments.total_amount IS DISTINCT FROM EXCLUDED.total_amount + monthly_commission_payments.carried_amount " +
+            "OR monthly_commission_payments.total_booking IS DISTINCT FROM EXCLUDED.total_booking + monthly_commission_payments.carried_booking)";
+
+    @Value("${expired-payment-day}")
+    private String EXPIRED_PAYMENT_DAY;
+    @Value("${fixed-amount}")
+    private String FIXED_AMOUNT;
+
+    private final MonthlyCommissionPaymentRepository commissionPaymentRepository;
+    private final LocationBookingRepository locationBookingRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Runs before the web server and the schedulers start, so no upsert can hit a table without the constraint
+    @PostConstruct
+    public void checkOneInvoicePerMonth() {
+        Integer constraints = jdbcTemplate.queryForObject(COUNT_MONTH_CONSTRAINT, Integer.class);
+        if (constraints == null || constraints == 0)
+            throw new IllegalStateException("monthly_commission_payments has no " + MONTH_CONSTRAINT +
+                    " constraint, run migrations/monthly-commission-payments-unique-month.sql first");
+    }
+
+    // Runs inside the transaction that made the booking successful, so the ledger moves together with the booking
+    @Override
+    @EventListener
+    @Transactional
+    public void onBookingStatusChanged(LocationBookingStatusChangedEvent event) {
+        if (event.getNewStatus() != LocationBookingStatus.SUCCESSFUL || event.getPreviousStatus() == LocationBookingStatus.SUCCESSFUL)
+            return;
+
+        // A paid invoice keeps what was paid, a late success is carried onto the first open month after it
+        YearMonth bookingMonth = YearMonth.from(event.getBookingDate());
+        YearMonth currentMonth = YearMonth.from(DateTimeUtil.nowInVietnam());
+        for (YearMonth month = bookingMonth; ; month = month.plusMonths(1)) {
+            boolean carried = !month.equals(bookingMonth);
+            int accrued = commissionPaymentRepository.accrueCommission(
+                    event.getLocationId(),
+                    month.getMonthValue(),
+                    month.getYear(),
+                    event.getCommission(),
+                    carried ? event.getCommission() : 0,
+                    carried ? 1 : 0,
+                    Integer.parseInt(FIXED_AMOUNT),
+                    expiredAtOf(month));
+            if (accrued > 0) return;
+            if (!month.isBefore(currentMonth)) {
+                log.warn("No open commission invoice for booking {} of location {}", event.getBookingId(), event.getLocationId());
+                return;
+            }
+        }
+    }
+
+    // Safety net for accruals lost outside the event path: one aggregate over the daily rollup per month
+    @Override
+    @Scheduled(cron = "0 */15 * * * ?")
+    @Transactional
+    public void reconcile() {
+        YearMonth currentMonth = YearMonth.from(DateTimeUtil.nowInVietnam());
+        reconcileMonth(currentMonth);
+        // Bookings of the last days of the previous month can still succeed early in the new month
+        if (DateTimeUtil.nowInVietnam().getDayOfMonth() == 1) reconcileMonth(currentMonth.minusMonths(1));
+    }
+
+    private void reconcileMonth(YearMonth month) {
+        int repaired = commissionPaymentRepository.reconcileFromRollup(
+                month.getMonthValue(),
+                month.getYear(),
+                month.atDay(1),
+                month.plusMonths(1).atDay(1),
+                Integer.parseInt(FIXED_AMOUNT),
+                expiredAtOf(month));
+        if (repaired > 0) log.warn("Commission ledger of {} drifted from bookings, {} rows repaired", month, repaired);
+    }
+
+    // One aggregate over the month's successful bookings for every location owner: userId -> totals
+    @Override
+    public Map<Long, CommissionTotal> sumMonthFromBookings(YearMonth month) {
+        Map<Long, CommissionTotal> totals = new HashMap<>();
+        for (Object[] row : locationBookingRepository.sumCommissionByLocationOwner(
+                LocationBookingStatus.SUCCESSFUL, month.atDay(1), month.plusMonths(1).atDay(1))) {
+            totals.put((Long) row[0], new CommissionTotal(((Number) row[1]).intValue(), ((Number) row[2]).doubleValue()));
+        }
+        return totals;
+    }
+
+    // Every given user gets a row for the month, also without bookings; joins the caller's transaction
+    @Override
+    public void writeMonthTotals(YearMonth month, List<Long> userIds, Map<Long, CommissionTotal> totals) {
+        LocalDateTime expiredAt = expiredAtOf(month);
+        int fixedAmount = Integer.parseInt(FIXED_AMOUNT);
+        List<Object[]> rows = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            CommissionTotal total = totals.getOrDefault(userId, CommissionTotal.NONE);
+            rows.add(new Object[]{userId, month.getMonthValue(), month.getYear(), fixedAmount,
+                    (float) Math.floor(total.getTotalAmount()), total.getTotalBooking(), expiredAt});
+        }
+        jdbcTemplate.batchUpdate(UPSERT_MONTH_TOTALS, rows);
+    }
+
+    // Commission of a month is due on the expired-payment-day of the following month
+    private LocalDateTime expiredAtOf(YearMonth month) {
+        return month.plusMonths(1).atDay(Integer.parseInt(EXPIRED_PAYMENT_DAY)).atTime(23, 59, 59);
+    }
+}
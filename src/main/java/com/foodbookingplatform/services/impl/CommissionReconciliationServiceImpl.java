@@ -0,0 +1,166 @@
+package com.foodbookingplatform.services.impl;
+
+import com.foodbookingplatform.models.enums.CommissionDiscrepancyType;
+import com.foodbookingplatform.models.payload.dto.billing.CommissionDiscrepancyResponse;
+import com.foodbookingplatform.models.payload.dto.billing.CommissionReconciliationResponse;
+import com.foodbookingplatform.repositories.MonthlyCommissionPaymentRepository;
+import com.foodbookingplatform.repositories.PayOSTransactionRepository;
+import com.foodbookingplatform.services.CommissionReconciliationService;
+import com.foodbookingplatform.utils.DateTimeUtil;
+import com.foodbookingplatform.utils.LongIntHashMap;
+import com.foodbookingplatform.utils.PaymentCodeGenerator;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CommissionReconciliationServiceImpl implements CommissionReconciliationService {
+
+    private static final String APPLY_CORRECTION =
+            "UPDATE monthly_commission_payments SET is_paid = true, paid_at = COALESCE(paid_at, ?), " +
+            "transaction_id = COALESCE(transaction_id, ?) WHERE id = ?";
+
+    private final MonthlyCommissionPaymentRepository commissionPaymentRepository;
+    private final PayOSTransactionRepository transactionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Invoices of a month are paid during the following month, so that is when their transactions happen
+    @Override
+    @Transactional
+    public CommissionReconciliationResponse reconcile(int month, int year, boolean dryRun) {
+        YearMonth period = YearMonth.of(year, month);
+
+        List<Object[]> invoiceRows = commissionPaymentRepository.findInvoicesOfMonth(month, year);
+        int invoiceCount = invoiceRows.size();
+        long[] invoiceIds = new long[invoiceCount];
+        long[] invoiceUserIds = new long[invoiceCount];
+        long[] dueAmounts = new long[invoiceCount];
+        boolean[] paid = new boolean[invoiceCount];
+        boolean[] linked = new boolean[invoiceCount];
+        LongIntHashMap invoiceByUser = new LongIntHashMap(invoiceCount);
+        for (int i = 0; i < invoiceCount; i++) {
+            Object[] row = invoiceRows.get(i);
+            invoiceIds[i] = (Long) row[0];
+            invoiceUserIds[i] = (Long) row[1];
+            dueAmounts[i] = (Integer) row[2] + (long) Math.floor((Float) row[3]);
+            paid[i] = (Boolean) row[4];
+            linked[i] = row[5] != null;
+            invoiceByUser.putIfAbsent(invoiceUserIds[i], i);
+        }
+
+        // The order code carries both the payer and the billed month, so it is decoded instead of joined in SQL
+        List<Object[]> transactionRows = transactionRepository.findSummariesByTransactionDateTime(
+                period.plusMonths(1).atDay(1) + " 00:00:00", period.plusMonths(2).atDay(1) + " 01:00:00");
+        int[] matchCount = new int[invoiceCount];
+        long[] paidAmounts = new long[invoiceCount];
+        long[] firstTransactionIds = new long[invoiceCount];
+        String[] firstPaidAts = new String[invoiceCount];
+        List<List<Long>> orderCodes = new ArrayList<>(invoiceCount);
+        for (int i = 0; i < invoiceCount; i++) orderCodes.add(null);
+        List<CommissionDiscrepancyResponse> discrepancies = new ArrayList<>();
+
+        int transactionCount = 0;
+        for (Object[] row : transactionRows) {
+            long orderCode = (Long) row[1];
+            if (!PaymentCodeGenerator.isCommissionCode(orderCode)
+                    || PaymentCodeGenerator.getLastMonthFromOrderCode(orderCode) != month
+                    || PaymentCodeGenerator.getLastYearFromOrderCode(orderCode) != year) continue;
+            transactionCount++;
+
+            long userId = PaymentCodeGenerator.getUserIdFromOrderCode(orderCode);
+            int amount = (Integer) row[2];
+            int invoice = invoiceByUser.get(userId);
+            if (invoice < 0) {
+                discrepancies.add(new CommissionDiscrepancyResponse(CommissionDiscrepancyType.TRANSACTION_WITHOUT_INVOICE,
+                        userId, null, List.of(orderCode), 0, amount, false));
+                continue;
+            }
+            if (matchCount[invoice]++ == 0) {
+                firstTransactionIds[invoice] = (Long) row[0];
+                firstPaidAts[invoice] = (String) row[3];
+                orderCodes.set(invoice, new ArrayList<>(1));
+            }
+            paidAmounts[invoice] += amount;
+            orderCodes.get(invoice).add(orderCode);
+        }
+
+        List<Object[]> corrections = new ArrayList<>();
+        int matched = 0;
+        int corrected = 0;
+        int newlyLinked = 0;
+        for (int i = 0; i < invoiceCount; i++) {
+            if (matchCount[i] == 0) {
+                if (paid[i] && !linked[i])
+                    discrepancies.add(discrepancy(CommissionDiscrepancyType.PAID_WITHOUT_TRANSACTION, i, invoiceIds, invoiceUserIds, dueAmounts, 0, List.of(), false));
+                continue;
+            }
+            matched++;
+            // An underpaid invoice stays open, the shortfall is only reported
+            boolean underpaid = paidAmounts[i] < dueAmounts[i];
+            if (!paid[i] && !underpaid) {
+                corrected++;
+                discrepancies.add(discrepancy(CommissionDiscrepancyType.UNMARKED_PAYMENT, i, invoiceIds, invoiceUserIds, dueAmounts, paidAmounts[i], orderCodes.get(i), !dryRun));
+                corrections.add(new Object[]{firstPaidAts[i], firstTransactionIds[i], invoiceIds[i]});
+            } else if (paid[i] && !linked[i]) {
+                newlyLinked++;
+                corrections.add(new Object[]{firstPaidAts[i], firstTransactionIds[i], invoiceIds[i]});
+            }
+
+            if (matchCount[i] > 1 && !underpaid)
+                discrepancies.add(discrepancy(CommissionDiscrepancyType.DUPLICATE_PAYMENT, i, invoiceIds, invoiceUserIds, dueAmounts, paidAmounts[i], orderCodes.get(i), false));
+            else if (paidAmounts[i] != dueAmounts[i])
+                discrepancies.add(discrepancy(CommissionDiscrepancyType.AMOUNT_MISMATCH, i, invoiceIds, invoiceUserIds, dueAmounts, paidAmounts[i], orderCodes.get(i), false));
+        }
+
+        if (!dryRun && !corrections.isEmpty()) jdbcTemplate.batchUpdate(APPLY_CORRECTION, corrections);
+
+        return new CommissionReconciliationResponse(month, year, dryRun, invoiceCount, transactionCount, matched,
+                corrected, newlyLinked, DateTimeUtil.nowInVietnam(), discrepancies);
+    }
+
+    @Override
+    @Scheduled(cron = "0 30 4 * * ?")
+    public void reconcileRecentPeriods() {
+        YearMonth currentMonth = YearMonth.from(DateTimeUtil.nowInVietnam());
+        reconcileAndLog(currentMonth.minusMonths(1));
+        // Links opened in the last minutes of the previous month may have been paid after midnight
+        if (DateTimeUtil.nowInVietnam().getDayOfMonth() == 1) reconcileAndLog(currentMonth.minusMonths(2));
+    }
+
+    // Called on this instance, so the transaction comes from the template rather than @Transactional
+    private void reconcileAndLog(YearMonth period) {
+        CommissionReconciliationResponse report = transactionTemplate.execute(status ->
+                reconcile(period.getMonthValue(), period.getYear(), false));
+        if (report != null) logReport(report);
+    }
+
+    private void logReport(CommissionReconciliationResponse report) {
+        log.info("Commission reconciliation of {}/{}: {} invoices, {} transactions, {} matched, {} corrected, {} linked, {} discrepancies",
+                report.getMonth(), report.getYear(), report.getInvoices(), report.getTransactions(), report.getMatchedInvoices(),
+                report.getCorrectedInvoices(), report.getLinkedInvoices(), report.getDiscrepancies().size());
+        report.getDiscrepancies().stream()
+                .filter(discrepancy -> !discrepancy.isCorrected())
+                .forEach(discrepancy -> log.warn("Commission discrepancy {} of user {}, invoice {}, order codes {}: due {}, paid {}",
+                        discrepancy.getType(), discrepancy.getUserId(), discrepancy.getInvoiceId(), discrepancy.getOrderCodes(),
+                        discrepancy.getDueAmount(), discrepancy.getPaidAmount()));
+    }
+
+    private CommissionDiscrepancyResponse discrepancy(CommissionDiscrepancyType type, int invoice, long[] invoiceIds, long[] invoiceUserIds,
+                                                      long[] dueAmounts, long paidAmount, List<Long> orderCodes, boolean corrected) {
+        return new CommissionDiscrepancyResponse(type, invoiceUserIds[invoice], invoiceIds[invoice], orderCodes,
+                dueAmounts[invoice], paidAmount, corrected);
+    }
+}
@@ -5,24 +5,70 @@ import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import jakarta.mail.util.ByteArrayDataSource;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
 import java.util.Base64;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 
 @Service
+@Slf4j
 @Transactional
 @RequiredArgsConstructor
 public class EmailServiceImpl implements EmailService {
+    private static final int QUEUE_CAPACITY = 50_000;
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Value("${mail-queue.messages-per-second}")
+    private int messagesPerSecond;
+
     private final JavaMailSender mailSender;
 
+    // Bulk mail waits here and leaves at a fixed pace, instead of taking over the async pool and the SMTP quota
+    private final BlockingQueue<QueuedEmail> queuedEmails = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+
     @Async
     public void sendEmail(String to, String subject, String content) {
+        send(to, subject, content);
+    }
+
+    @Override
+    public void queueEmail(String to, String subject, String content) {
+        if (!queuedEmails.offer(new QueuedEmail(to, subject, content, 1)))
+            log.warn("Mail queue is full, dropping mail \"{}\" to {}", subject, to);
+    }
+
+    // Only talks to SMTP, a transaction would hold a connection for the whole batch
+    @Override
+    @Scheduled(fixedRate = 1000)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void drainQueuedEmails() {
+        for (int i = 0; i < messagesPerSecond; i++) {
+            QueuedEmail email = queuedEmails.poll();
+            if (email == null) return;
+            try {
+                send(email.to(), email.subject(), email.content());
+            } catch (RuntimeException e) {
+                if (email.attempt() < MAX_ATTEMPTS && queuedEmails.offer(email.nextAttempt())) {
+                    log.warn("Sending mail to {} failed, retrying later: {}", email.to(), e.getMessage());
+                } else {
+                    log.error("Sending mail to {} failed, giving up", email.to(), e);
+                }
+            }
+        }
+    }
+
+    private void send(String to, String subject, String content) {
         MimeMessage message = mailSender.createMimeMessage();
         MimeMessageHelper helper;
         try {
@@ -57,4 +103,10 @@ public class EmailServiceImpl implements EmailService {
             throw new RuntimeException("Error sending email with QR code", e);
         }
     }
+
+    private record QueuedEmail(String to, String subject, String content, int attempt) {
+        QueuedEmail nextAttempt() {
+            return new QueuedEmail(to, subject, content, attempt + 1);
+        }
+    }
 }
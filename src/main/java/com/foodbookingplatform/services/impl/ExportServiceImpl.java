@@ -0,0 +1,299 @@
+package com.foodbookingplatform.services.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.foodbookingplatform.models.enums.ExportFormat;
+import com.foodbookingplatform.models.enums.LocationBookingStatus;
+import com.foodbookingplatform.models.exception.RestaurantBookingException;
+import com.foodbookingplatform.repositories.UserRepository;
+import com.foodbookingplatform.services.ExportService;
+import com.foodbookingplatform.utils.SecurityUtils;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+
+    // Rows the driver pulls per round trip; PostgreSQL only streams with a fetch size inside a transaction
+    private static final int FETCH_SIZE = 1000;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final LocalDate NO_START_DATE = LocalDate.of(1970, 1, 1);
+    private static final LocalDate NO_END_DATE = LocalDate.of(9999, 12, 31);
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final String PAYMENT_HISTORY_EXPORT =
+            "SELECT ph.id, ph.booking_id, lb.booking_date, lb.booking_time, lb.name AS customer_name, ph.total_amount, " +
+            "ph.status, pm.type AS payment_method, ph.created_date " +
+            "FROM payment_history ph " +
+            "JOIN location_booking lb ON lb.id = ph.booking_id " +
+            "JOIN payment_method pm ON pm.id = ph.method_id " +
+            "WHERE lb.location_id = ? AND lb.booking_date >= ? AND lb.booking_date < ? " +
+            "ORDER BY ph.id";
+    private static final String BOOKING_EXPORT =
+            "SELECT id, name, address, phone, booking_date, booking_time, number_of_guest, number_of_adult, number_of_children, " +
+            "amount, commission, status, voucher_id, promotion_id, created_date " +
+            "FROM location_booking " +
+            "WHERE location_id = ? AND booking_date >= ? AND booking_date < ?";
+
+    @Value("${export.timeout-minutes}")
+    private long timeoutMinutes;
+    @Value("${export.max-concurrent}")
+    private int maxConcurrent;
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Each running export pins a pooled connection, kept below the pool size so bookings still get one
+    private Semaphore exportSlots;
+
+    @PostConstruct
+    public void initExportSlots() {
+        exportSlots = new Semaphore(maxConcurrent);
+    }
+
+    @Override
+    public StreamingResponseBody exportPaymentHistories(Long locationId, ExportFormat format, LocalDate startDate, LocalDate endDate) throws AccessDeniedException {
+        checkLocation(locationId);
+        List<Object> params = dateRangeParams(locationId, startDate, endDate);
+        Runnable release = acquireExportSlot();
+        return outputStream -> {
+            try {
+                stream(PAYMENT_HISTORY_EXPORT, params, format, outputStream);
+            } finally {
+                release.run();
+            }
+        };
+    }
+
+    @Override
+    public StreamingResponseBody exportBookings(Long locationId, ExportFormat format, LocalDate startDate, LocalDate endDate, List<LocationBookingStatus> statuses) throws AccessDeniedException {
+        checkLocation(locationId);
+        List<Object> params = dateRangeParams(locationId, startDate, endDate);
+        String sql = BOOKING_EXPORT;
+        if (statuses != null && !statuses.isEmpty()) {
+            sql += " AND status = ANY(?)";
+            params.add(statuses.stream().map(Enum::name).toArray(String[]::new));
+        }
+        String exportSql = sql + " ORDER BY id";
+        Runnable release = acquireExportSlot();
+        return outputStream -> {
+            try {
+                stream(exportSql, params, format, outputStream);
+            } finally {
+                release.run();
+            }
+        };
+    }
+
+    // The slot is freed when the body finishes, or when the request completes without the body ever running
+    private Runnable acquireExportSlot() {
+        if (!exportSlots.tryAcquire())
+            throw new RestaurantBookingException(HttpStatus.SERVICE_UNAVAILABLE, "Too many exports are running, please try again later!");
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) exportSlots.release();
+        };
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+        AsyncWebRequest asyncWebRequest = WebAsyncUtils.getAsyncManager(attributes.getRequest()).getAsyncWebRequest();
+        if (asyncWebRequest != null) {
+            // Exports outlive the default async timeout of the other endpoints, but still end on a client that stopped reading
+            asyncWebRequest.setTimeout(timeoutMinutes * 60 * 1000);
+            asyncWebRequest.addCompletionHandler(release);
+        }
+        return release;
+    }
+
+    // Checked on the request thread, the streaming body runs later without the security context
+    private void checkLocation(Long locationId) throws AccessDeniedException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean systemAdmin = authentication.getAuthorities().stream()
+                .anyMatch(authority -> authority.getAuthority().equals("ROLE_SYSTEM_ADMIN"));
+        if (!systemAdmin && !SecurityUtils.isAuthorizeLocation(locationId, userRepository))
+            throw new RestaurantBookingException(HttpStatus.NOT_FOUND, "You dont have this location with id: " + locationId);
+    }
+
+    private List<Object> dateRangeParams(Long locationId, LocalDate startDate, LocalDate endDate) {
+        List<Object> params = new ArrayList<>();
+        params.add(locationId);
+        params.add(startDate != null ? startDate : NO_START_DATE);
+        params.add(endDate != null ? endDate.plusDays(1) : NO_END_DATE);
+        return params;
+    }
+
+    // Forward-only cursor, each row goes straight from the result set to the response buffer
+    private void stream(String sql, List<Object> params, ExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        RowWriter rowWriter = format == ExportFormat.NDJSON ? new NdjsonRowWriter(writer) : new CsvRowWriter(writer);
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(FETCH_SIZE);
+                for (int i = 0; i < params.size(); i++) {
+                    Object param = params.get(i);
+                    if (param instanceof String[] values) {
+                        Array array = connection.createArrayOf("varchar", values);
+                        statement.setArray(i + 1, array);
+                    } else {
+                        statement.setObject(i + 1, param);
+                    }
+                }
+                return statement;
+            }, (ResultSetExtractor<Void>) resultSet -> {
+                try {
+                    rowWriter.header(resultSet.getMetaData());
+                    while (resultSet.next()) rowWriter.row(resultSet);
+                    return null;
+                } catch (IOException e) {
+                    // The client went away, stop reading from the cursor
+                    throw new UncheckedIOException(e);
+                }
+            }));
+            rowWriter.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private interface RowWriter {
+        void header(ResultSetMetaData metaData) throws SQLException, IOException;
+
+        void row(ResultSet resultSet) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+        private int columns;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void header(ResultSetMetaData metaData) throws SQLException, IOException {
+            columns = metaData.getColumnCount();
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) writer.write(',');
+                writeValue(metaData.getColumnLabel(i));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void row(ResultSet resultSet) throws SQLException, IOException {
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) writer.write(',');
+                String value = resultSet.getString(i);
+                if (value != null) writeValue(value);
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        private void writeValue(String value) throws IOException {
+            boolean quoted = value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quoted) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final Writer writer;
+        private final JsonGenerator generator;
+        private String[] names;
+        private boolean[] numeric;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            this.generator = JSON_FACTORY.createGenerator(writer);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void header(ResultSetMetaData metaData) throws SQLException {
+            int columns = metaData.getColumnCount();
+            names = new String[columns];
+            numeric = new boolean[columns];
+            for (int i = 0; i < columns; i++) {
+                names[i] = metaData.getColumnLabel(i + 1);
+                numeric[i] = isNumeric(metaData.getColumnType(i + 1));
+            }
+        }
+
+        @Override
+        public void row(ResultSet resultSet) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < names.length; i++) {
+                String value = resultSet.getString(i + 1);
+                generator.writeFieldName(names[i]);
+                if (value == null) generator.writeNull();
+                else if (numeric[i]) generator.writeNumber(value);
+                else generator.writeString(value);
+            }
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+            writer.flush();
+        }
+
+        private static boolean isNumeric(int sqlType) {
+            return switch (sqlType) {
+                case Types.BIGINT, Types.INTEGER, Types.SMALLINT, Types.TINYINT,
+                     Types.REAL, Types.FLOAT, Types.DOUBLE, Types.NUMERIC, Types.DECIMAL -> true;
+                default -> false;
+            };
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.foodbookingplatform.services.impl;
+
+import com.foodbookingplatform.models.enums.LocationBookingStatus;
+import com.foodbookingplatform.models.events.LocationBookingStatusChangedEvent;
+import com.foodbookingplatform.repositories.LocationBookingRepository;
+import com.foodbookingplatform.services.LocationBookingExpiryService;
+import com.foodbookingplatform.utils.DateTimeUtil;
+import com.foodbookingplatform.utils.HierarchicalTimingWheel;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class LocationBookingExpiryServiceImpl implements LocationBookingExpiryService {
+
+    private static final ZoneId VIETNAM_ZONE = ZoneId.of("Asia/Ho_Chi_Minh");
+    private static final List<LocationBookingStatus> EXPIRABLE_STATUSES = List.of(LocationBookingStatus.PENDING, LocationBookingStatus.CONFIRMED);
+    private static final int UPDATE_BATCH_SIZE = 500;
+
+    @Value("${booking-expiry.pending-grace-minutes}")
+    private long pendingGraceMinutes;
+    @Value("${booking-expiry.confirmed-grace-minutes}")
+    private long confirmedGraceMinutes;
+
+    private final LocationBookingRepository locationBookingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // 1 second ticks, 5 levels of 64 buckets is enough to hold deadlines decades ahead
+    private final HierarchicalTimingWheel<ExpiryTask> timingWheel = new HierarchicalTimingWheel<>(1000, 5, System.currentTimeMillis());
+    // Deadlines that were already due when registered, flushed on the next tick
+    private final Queue<ExpiryTask> overdueTasks = new ConcurrentLinkedQueue<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildFromDatabase() {
+        timingWheel.clear(System.currentTimeMillis());
+        overdueTasks.clear();
+
+        List<Object[]> rows = locationBookingRepository.findDeadlinesByStatusIn(EXPIRABLE_STATUSES);
+        for (Object[] row : rows) {
+            register((Long) row[0], (LocationBookingStatus) row[1], (LocalDate) row[2], (LocalTime) row[3]);
+        }
+        log.info("Booking expiry wheel rebuilt: {} scheduled, {} already overdue", timingWheel.size(), overdueTasks.size());
+    }
+
+    @Override
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingStatusChanged(LocationBookingStatusChangedEvent event) {
+        if (!EXPIRABLE_STATUSES.contains(event.getNewStatus())) return;
+        register(event.getBookingId(), event.getNewStatus(), event.getBookingDate(), event.getBookingTime());
+    }
+
+    @Override
+    @Scheduled(fixedDelay = 1000)
+    @Transactional
+    public void expireDueBookings() {
+        List<ExpiryTask> dueTasks = timingWheel.advance(System.currentTimeMillis());
+        ExpiryTask overdue;
+        while ((overdue = overdueTasks.poll()) != null) dueTasks.add(overdue);
+        if (dueTasks.isEmpty()) return;
+
+        // The UPDATE only matches bookings still in the status they had when registered,
+        // so cancelled/approved/completed bookings are skipped without removing them from the wheel
+        Map<LocationBookingStatus, List<Long>> idsByStatus = new EnumMap<>(LocationBookingStatus.class);
+        dueTasks.forEach(task -> idsByStatus.computeIfAbsent(task.status(), s -> new ArrayList<>()).add(task.bookingId()));
+
+        LocalDateTime now = DateTimeUtil.nowInVietnam();
+        int expiredCount = 0;
+        try {
+            for (Map.Entry<LocationBookingStatus, List<Long>> entry : idsByStatus.entrySet()) {
+                List<Long> ids = entry.getValue();
+                for (int from = 0; from < ids.size(); from += UPDATE_BATCH_SIZE) {
+                    List<Long> batch = ids.subList(from, Math.min(from + UPDATE_BATCH_SIZE, ids.size()));
+                    expiredCount += expireBatch(batch, entry.getKey(), now);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Error expiring {} due bookings, retrying on next tick", dueTasks.size(), e);
+            overdueTasks.addAll(dueTasks);
+            throw e;
+        }
+
+        if (expiredCount > 0) log.info("Expired {} bookings past their deadline", expiredCount);
+    }
+
+    private int expireBatch(List<Long> ids, LocationBookingStatus currentStatus, LocalDateTime now) {
+        List<Object[]> snapshots = locationBookingRepository.findSnapshotsByIdInAndStatus(ids, currentStatus);
+        if (snapshots.isEmpty()) return 0;
+
+        List<Long> matchedIds = snapshots.stream().map(row -> (Long) row[0]).toList();
+        int updated = locationBookingRepository.updateStatusByIdInAndStatus(matchedIds, currentStatus, LocationBookingStatus.FAILED, now);
+        snapshots.forEach(row -> eventPublisher.publishEvent(new LocationBookingStatusChangedEvent(
+                (Long) row[0], (Long) row[1], (Long) row[2], (LocalDate) row[3], (LocalTime) row[4],
+                (Integer) row[5], (Float) row[6], (Float) row[7], currentStatus, LocationBookingStatus.FAILED)));
+        return updated;
+    }
+
+    private void register(Long bookingId, LocationBookingStatus status, LocalDate bookingDate, LocalTime bookingTime) {
+        long graceMinutes = status == LocationBookingStatus.PENDING ? pendingGraceMinutes : confirmedGraceMinutes;
+        long deadlineMillis = LocalDateTime.of(bookingDate, bookingTime)
+                .plusMinutes(graceMinutes)
+                .atZone(VIETNAM_ZONE)
+                .toInstant()
+                .toEpochMilli();
+
+        ExpiryTask task = new ExpiryTask(bookingId, status);
+        if (!timingWheel.add(deadlineMillis, task)) overdueTasks.add(task);
+    }
+
+    private record ExpiryTask(Long bookingId, LocationBookingStatus status) {
+    }
+}
@@ -4,6 +4,7 @@ import com.foodbookingplatform.models.entities.*;
 import com.foodbookingplatform.models.enums.DayInWeek;
 import com.foodbookingplatform.models.enums.EntityStatus;
 import com.foodbookingplatform.models.enums.LocationBookingStatus;
+import com.foodbookingplatform.models.events.LocationBookingStatusChangedEvent;
 import com.foodbookingplatform.models.exception.ResourceNotFoundException;
 import com.foodbookingplatform.models.exception.RestaurantBookingException;
 import com.foodbookingplatform.models.payload.dto.foodbooking.FoodBookingRequest;
@@ -21,6 +22,7 @@ import com.foodbookingplatform.utils.SecurityUtils;
 import lombok.RequiredArgsConstructor;
 
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
@@ -32,6 +34,7 @@ import org.springframework.beans.factory.annotation.Value;
 import java.nio.file.AccessDeniedException;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.YearMonth;
 import java.util.*;
 
 @Service
@@ -54,6 +57,12 @@ public class LocationBookingServiceImpl implements LocationBookingService {
     private final VoucherService voucherService;
     private final PromotionService promotionService;
     private final EmailService emailService;
+    private final LocationSlotService locationSlotService;
+    private final TableInventoryService tableInventoryService;
+    private final UserBookingIntervalService userBookingIntervalService;
+    private final CheckInService checkInService;
+    private final BookingDailyRollupRepository bookingDailyRollupRepository;
+    private final ApplicationEventPublisher eventPublisher;
     private final ModelMapper mapper;
 
     @Override
@@ -121,6 +130,22 @@ public class LocationBookingServiceImpl implements LocationBookingService {
 
     @Override
     public LocationBookingResponse createLocationBooking(LocationBookingRequest request) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = userRepository.findByUserName(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+        LocationBooking newBooking = createBooking(user, request);
+        sendMailCreateBooking(newBooking);
+        return mapLocationBookingResponse(newBooking);
+    }
+
+    @Override
+    public LocationBookingResponse createWaitlistBooking(Long userId, LocationBookingRequest request) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+        return mapLocationBookingResponse(createBooking(user, request));
+    }
+
+    private LocationBooking createBooking(User user, LocationBookingRequest request) {
         LocationBooking newBooking = new LocationBooking();
         List<Food> orderedFoods = new ArrayList<>();
         List<Integer> foodQuantity = new ArrayList<>();
@@ -128,10 +153,8 @@ public class LocationBookingServiceImpl implements LocationBookingService {
         float promotionDiscountAmount = 0.0f;
         float totalPrice = 0.0f;
 
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByUserName(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
-        Location bookedLocation = locationRepository.findById(request.getLocationId())
+        // Held until commit so the seat check below and the insert cannot interleave with another booking
+        Location bookedLocation = locationRepository.findByIdForUpdate(request.getLocationId())
                 .orElseThrow(() -> new RestaurantBookingException(HttpStatus.BAD_REQUEST, "No restaurant available!"));
         if (!bookedLocation.getStatus().equals(EntityStatus.ACTIVE))
             throw new RestaurantBookingException(HttpStatus.BAD_REQUEST, "Restaurant is not available for booking!");
@@ -147,6 +170,12 @@ public class LocationBookingServiceImpl implements LocationBookingService {
             throw new RestaurantBookingException(HttpStatus.BAD_REQUEST, "You cannot book in the past!");
         }
 
+        int numberOfGuest = request.getNumberOfAdult() + request.getNumberOfChildren();
+        // The previous holder of the lock has committed but its after-commit eviction may not have run yet
+        locationSlotService.evictDay(bookedLocation.getId(), request.getBookingDate());
+        if (locationSlotService.getRemainingSeats(bookedLocation.getId(), request.getBookingDate(), request.getBookingTime()) < numberOfGuest)
+            throw new RestaurantBookingException(HttpStatus.BAD_REQUEST, "Not enough seats left at this time, please book another time!");
+
         newBooking.setName(request.getName());
         newBooking.setAddress(request.getAddress());
         newBooking.setPhone(request.getPhone());
@@ -154,13 +183,15 @@ public class LocationBookingServiceImpl implements LocationBookingService {
         newBooking.setBookingTime(request.getBookingTime());
         newBooking.setNumberOfAdult(request.getNumberOfAdult());
         newBooking.setNumberOfChildren(request.getNumberOfChildren());
-        newBooking.setNumberOfGuest(request.getNumberOfAdult() + request.getNumberOfChildren());
+        newBooking.setNumberOfGuest(numberOfGuest);
         newBooking.setLocation(bookedLocation);
         newBooking.setUser(user);
         newBooking.setStatus(LocationBookingStatus.PENDING);
         newBooking = locationBookingRepository.save(newBooking);
+        userBookingIntervalService.reserve(newBooking);
+        newBooking.setDiningTables(tableInventoryService.allocateTables(newBooking));
 
-        if (!request.getFoodBookings().isEmpty()) {
+        if (request.getFoodBookings() != null && !request.getFoodBookings().isEmpty()) {
             for (int i = 0; i < request.getFoodBookings().size(); i++) {
                 FoodBookingRequest foodBookingRequest = request.getFoodBookings().get(i);
                 Food orderedFood = foodRepository.findById(foodBookingRequest.getFoodId())
@@ -189,7 +220,7 @@ public class LocationBookingServiceImpl implements LocationBookingService {
         }
 
         if (request.getVoucherId() != null && request.getVoucherId() != 0) {
-            UserVoucher userVoucher = userVoucherRepository.findByVoucher_IdAndUserUserName(request.getVoucherId(), username)
+            UserVoucher userVoucher = userVoucherRepository.findByVoucher_IdAndUserUserName(request.getVoucherId(), user.getUserName())
                     .orElseThrow(() -> new ResourceNotFoundException("Voucher", "id", request.getVoucherId()));
             Voucher voucher = userVoucher.getVoucher();
             CheckVoucherResponse checkVoucherResponse = voucherService.applyVoucher(request.getVoucherId(), totalPrice);
@@ -204,18 +235,21 @@ public class LocationBookingServiceImpl implements LocationBookingService {
         newBooking.setFoodBookings(new HashSet<>(bookedFoods));
         newBooking.setAmount(totalPrice - promotionDiscountAmount - voucherDiscountAmount);
         newBooking = locationBookingRepository.save(newBooking);
-        sendMailCreateBooking(newBooking);
-        return mapLocationBookingResponse(newBooking);
+        eventPublisher.publishEvent(LocationBookingStatusChangedEvent.of(newBooking, null));
+        return newBooking;
     }
 
     @Override
     public LocationBookingResponse cancelLocationBooking(Long bookingId) {
         LocationBooking locationBooking = locationBookingRepository.findById(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", bookingId));
-        if (locationBooking.getStatus().equals(LocationBookingStatus.PENDING) ||
-                locationBooking.getStatus().equals(LocationBookingStatus.CONFIRMED)) {
+        LocationBookingStatus previousStatus = locationBooking.getStatus();
+        if (previousStatus.equals(LocationBookingStatus.PENDING) ||
+                previousStatus.equals(LocationBookingStatus.CONFIRMED)) {
             locationBooking.setStatus(LocationBookingStatus.CANCELLED);
-            return mapLocationBookingResponse(locationBookingRepository.save(locationBooking));
+            locationBooking = locationBookingRepository.save(locationBooking);
+            eventPublisher.publishEvent(LocationBookingStatusChangedEvent.of(locationBooking, previousStatus));
+            return mapLocationBookingResponse(locationBooking);
         } else throw new RestaurantBookingException(HttpStatus.BAD_REQUEST, "This booking cannot be cancelled!");
     }
 
@@ -227,6 +261,7 @@ public class LocationBookingServiceImpl implements LocationBookingService {
         if (locationBooking.getStatus().equals(LocationBookingStatus.PENDING)) {
             locationBooking.setStatus(LocationBookingStatus.CONFIRMED);
             locationBooking = locationBookingRepository.save(locationBooking);
+            eventPublisher.publishEvent(LocationBookingStatusChangedEvent.of(locationBooking, LocationBookingStatus.PENDING));
             sendMailApproveBooking(locationBooking);
             return mapLocationBookingResponse(locationBookingRepository.save(locationBooking));
         } else
@@ -242,6 +277,7 @@ public class LocationBookingServiceImpl implements LocationBookingService {
             locationBooking.setStatus(LocationBookingStatus.SUCCESSFUL);
             locationBooking.setCommission(Float.parseFloat(commisionAmount));
             locationBooking = locationBookingRepository.save(locationBooking);
+            eventPublisher.publishEvent(LocationBookingStatusChangedEvent.of(locationBooking, LocationBookingStatus.CONFIRMED));
             return mapLocationBookingResponse(locationBookingRepository.save(locationBooking));
         } else
             throw new RestaurantBookingException(HttpStatus.BAD_REQUEST, "Only confirmed bookings are able to be success");
@@ -311,7 +347,8 @@ public class LocationBookingServiceImpl implements LocationBookingService {
 
     private void sendMailApproveBooking(LocationBooking locationBooking) {
         try {
-            byte[] qrCodeImage = QRCodeGenerator.generateQRCodeImage(QRCodeGenerator.baseUrl);
+            byte[] qrCodeImage = QRCodeGenerator.generateQRCodeImage(
+                    QRCodeGenerator.baseUrl + "/check-in?token=" + checkInService.generateCheckInToken(locationBooking));
             String subject = "[SkedEat Thông báo Đặt Chỗ]: Đặt Chỗ Của Bạn Đã Được Xác Nhận!";
             String content = "<html>" +
                     "<head>" +
@@ -423,7 +460,9 @@ public class LocationBookingServiceImpl implements LocationBookingService {
 
     @Override
     public int countAllBookingsInSystem(LocationBookingStatus status, int month, int year) {
-        return locationBookingRepository.countSuccessfulBookingsInSystem(LocationBookingStatus.SUCCESSFUL, month, year);
+        YearMonth yearMonth = YearMonth.of(year, month);
+        return (int) bookingDailyRollupRepository.sumBookingCount(LocationBookingStatus.SUCCESSFUL,
+                yearMonth.atDay(1), yearMonth.plusMonths(1).atDay(1));
     }
 
 }
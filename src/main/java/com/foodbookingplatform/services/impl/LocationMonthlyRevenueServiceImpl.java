@@ -0,0 +1,74 @@
+package com.foodbookingplatform.services.impl;
+
+import com.foodbookingplatform.models.enums.LocationBookingStatus;
+import com.foodbookingplatform.models.events.LocationBookingStatusChangedEvent;
+import com.foodbookingplatform.repositories.LocationMonthlyRevenueRepository;
+import com.foodbookingplatform.services.LocationMonthlyRevenueService;
+import com.foodbookingplatform.utils.DateTimeUtil;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class LocationMonthlyRevenueServiceImpl implements LocationMonthlyRevenueService {
+
+    private final LocationMonthlyRevenueRepository monthlyRevenueRepository;
+
+    // Runs inside the transaction that changed the booking, like the daily rollup
+    @Override
+    @EventListener
+    @Transactional
+    public void onBookingStatusChanged(LocationBookingStatusChangedEvent event) {
+        boolean wasSuccessful = event.getPreviousStatus() == LocationBookingStatus.SUCCESSFUL;
+        boolean isSuccessful = event.getNewStatus() == LocationBookingStatus.SUCCESSFUL;
+        if (wasSuccessful == isSuccessful) return;
+
+        int sign = isSuccessful ? 1 : -1;
+        monthlyRevenueRepository.addToMonth(
+                event.getLocationId(),
+                YearMonth.from(event.getBookingDate()).atDay(1),
+                sign,
+                (double) sign * event.getAmount());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (monthlyRevenueRepository.count() == 0) {
+            int inserted = monthlyRevenueRepository.backfillAllMonths(YearMonth.from(DateTimeUtil.nowInVietnam()).atDay(1));
+            log.info("Location monthly revenue was empty, {} rows backfilled from the daily rollup", inserted);
+        }
+    }
+
+    // After the nightly rollup reconcile: refresh the running month and, on the 2nd, close the previous one
+    @Override
+    @Scheduled(cron = "0 45 2 * * ?")
+    @Transactional
+    public void snapshotMonths() {
+        LocalDate today = DateTimeUtil.nowInVietnam().toLocalDate();
+        YearMonth currentMonth = YearMonth.from(today);
+        snapshotMonth(currentMonth, false);
+        // Bookings of the last evening of a month can still succeed on the 1st
+        if (today.getDayOfMonth() == 2) snapshotMonth(currentMonth.minusMonths(1), true);
+    }
+
+    private void snapshotMonth(YearMonth month, boolean closed) {
+        LocalDate monthStart = month.atDay(1);
+        LocalDate nextMonthStart = month.plusMonths(1).atDay(1);
+        int written = monthlyRevenueRepository.snapshotMonth(monthStart, nextMonthStart, closed);
+        int removed = monthlyRevenueRepository.deleteOrphanedOfMonth(monthStart, nextMonthStart);
+        log.info("Snapshotted location revenue of {}{}: {} rows written, {} rows removed",
+                month, closed ? " (closed)" : "", written, removed);
+    }
+}
@@ -15,6 +15,7 @@ import com.foodbookingplatform.models.payload.dto.tag.TagResponse;
 import com.foodbookingplatform.models.payload.dto.workinghour.WorkingHourResponse;
 import com.foodbookingplatform.repositories.*;
 import com.foodbookingplatform.services.LocationService;
+import com.foodbookingplatform.services.LocationSlotService;
 import com.foodbookingplatform.utils.DateTimeUtil;
 import com.foodbookingplatform.utils.GenericSpecification;
 import com.foodbookingplatform.utils.GeoHashGeneration;
@@ -44,6 +45,7 @@ public class LocationServiceImpl implements LocationService {
     private final LocationTagRepository locationTagRepository;
     private final WorkingHourRepository workingHourRepository;
     private final AdsRegistrationRepository adsRegistrationRepository;
+    private final LocationSlotService locationSlotService;
     private final ModelMapper mapper;
 
     @Override
@@ -114,6 +116,7 @@ public class LocationServiceImpl implements LocationService {
     @Override
     public LocationResponse updateLocation(LocationRequest locationRequest) {
         Location updatedLocation = validate(locationRequest);
+        locationSlotService.evictLocation(updatedLocation.getId());
         return mapToResponse(updatedLocation);
     }
 
@@ -0,0 +1,175 @@
+package com.foodbookingplatform.services.impl;
+
+import com.foodbookingplatform.models.entities.Location;
+import com.foodbookingplatform.models.entities.WorkingHour;
+import com.foodbookingplatform.models.enums.DayInWeek;
+import com.foodbookingplatform.models.enums.LocationBookingStatus;
+import com.foodbookingplatform.models.events.LocationBookingStatusChangedEvent;
+import com.foodbookingplatform.models.exception.ResourceNotFoundException;
+import com.foodbookingplatform.models.exception.RestaurantBookingException;
+import com.foodbookingplatform.models.payload.dto.slot.LocationSlotResponse;
+import com.foodbookingplatform.repositories.LocationBookingRepository;
+import com.foodbookingplatform.repositories.LocationRepository;
+import com.foodbookingplatform.repositories.WorkingHourRepository;
+import com.foodbookingplatform.services.LocationSlotService;
+import com.foodbookingplatform.utils.DateTimeUtil;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+public class LocationSlotServiceImpl implements LocationSlotService {
+
+    // Statuses that hold seats at the restaurant
+    private static final List<LocationBookingStatus> SEATED_STATUSES = List.of(
+            LocationBookingStatus.PENDING, LocationBookingStatus.CONFIRMED, LocationBookingStatus.SUCCESSFUL);
+
+    @Value("${booking-slot.slot-minutes}")
+    private int slotMinutes;
+    @Value("${booking-slot.dining-minutes}")
+    private int diningMinutes;
+    @Value("${booking-slot.default-seat-capacity}")
+    private int defaultSeatCapacity;
+    @Value("${booking-slot.cache-horizon-days}")
+    private long cacheHorizonDays;
+
+    private final LocationRepository locationRepository;
+    private final LocationBookingRepository locationBookingRepository;
+    private final WorkingHourRepository workingHourRepository;
+
+    private final Map<SlotKey, DaySlots> daySlotsCache = new ConcurrentHashMap<>();
+
+    @Override
+    public List<LocationSlotResponse> getAvailableSlots(Long locationId, LocalDate date) {
+        LocalDateTime now = DateTimeUtil.nowInVietnam();
+        if (date.isBefore(now.toLocalDate()))
+            throw new RestaurantBookingException(HttpStatus.BAD_REQUEST, "You cannot book in the past!");
+
+        DaySlots daySlots = getDaySlots(locationId, date);
+        List<LocationSlotResponse> slots = new ArrayList<>(daySlots.reservedSeats().length);
+        for (int i = 0; i < daySlots.reservedSeats().length; i++) {
+            LocalTime startTime = daySlots.slotStart(i, slotMinutes);
+            if (date.isEqual(now.toLocalDate()) && !startTime.isAfter(now.toLocalTime())) continue;
+            LocalTime endTime = daySlots.slotStart(i + 1, slotMinutes);
+            if (endTime.isAfter(daySlots.closeTime())) endTime = daySlots.closeTime();
+            slots.add(new LocationSlotResponse(startTime, endTime, Math.max(0, daySlots.capacity() - daySlots.reservedSeats()[i])));
+        }
+        return slots;
+    }
+
+    // Seats still free for a booking starting at the given time, i.e. the minimum over every slot it covers
+    @Override
+    public int getRemainingSeats(Long locationId, LocalDate date, LocalTime time) {
+        DaySlots daySlots = getDaySlots(locationId, date);
+        int[] range = daySlots.coveredSlots(time, slotMinutes, diningMinutes);
+        if (range[0] >= range[1]) return 0;
+
+        int remaining = daySlots.capacity();
+        for (int i = range[0]; i < range[1]; i++) {
+            remaining = Math.min(remaining, daySlots.capacity() - daySlots.reservedSeats()[i]);
+        }
+        return Math.max(0, remaining);
+    }
+
+    // Capacity or working hours changed, drop every cached day of the location once the change is committed,
+    // otherwise a read in between rebuilds the days from the old rows and keeps them
+    @Override
+    public void evictLocation(Long locationId) {
+        Runnable evict = () -> daySlotsCache.keySet().removeIf(key -> key.locationId().equals(locationId));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        } else {
+            evict.run();
+        }
+    }
+
+    // The next read rebuilds the day from committed rows
+    @Override
+    public void evictDay(Long locationId, LocalDate date) {
+        daySlotsCache.remove(new SlotKey(locationId, date));
+    }
+
+    @Override
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingStatusChanged(LocationBookingStatusChangedEvent event) {
+        // Removing after commit blocks on a concurrent rebuild of the same key, so a rebuild that read
+        // the rows before this commit can never stay cached
+        daySlotsCache.remove(new SlotKey(event.getLocationId(), event.getBookingDate()));
+    }
+
+    @Scheduled(cron = "0 5 0 * * ?")
+    public void evictPastDays() {
+        LocalDate today = DateTimeUtil.nowInVietnam().toLocalDate();
+        daySlotsCache.keySet().removeIf(key -> key.date().isBefore(today));
+    }
+
+    // Only days up to the horizon are cached, lookups of any later date are built each time instead of piling up
+    private DaySlots getDaySlots(Long locationId, LocalDate date) {
+        SlotKey key = new SlotKey(locationId, date);
+        LocalDate today = DateTimeUtil.nowInVietnam().toLocalDate();
+        if (date.isBefore(today) || date.isAfter(today.plusDays(cacheHorizonDays))) return buildDaySlots(key);
+        return daySlotsCache.computeIfAbsent(key, this::buildDaySlots);
+    }
+
+    private DaySlots buildDaySlots(SlotKey key) {
+        Location location = locationRepository.findById(key.locationId())
+                .orElseThrow(() -> new ResourceNotFoundException("Location", "id", key.locationId()));
+        int capacity = location.getSeatCapacity() != null ? location.getSeatCapacity() : defaultSeatCapacity;
+
+        WorkingHour workingHour = workingHourRepository.findByLocation_IdAndDay(key.locationId(), DayInWeek.valueOf(key.date().getDayOfWeek().name()));
+        if (workingHour == null || !workingHour.getEndTime().isAfter(workingHour.getStartTime()))
+            return new DaySlots(LocalTime.MIDNIGHT, LocalTime.MIDNIGHT, capacity, new int[0]);
+
+        long openMinutes = Duration.between(workingHour.getStartTime(), workingHour.getEndTime()).toMinutes();
+        DaySlots daySlots = new DaySlots(workingHour.getStartTime(), workingHour.getEndTime(), capacity,
+                new int[(int) ((openMinutes + slotMinutes - 1) / slotMinutes)]);
+
+        List<Object[]> seatUsage = locationBookingRepository.findSeatUsage(key.locationId(), key.date(), SEATED_STATUSES);
+        for (Object[] row : seatUsage) {
+            int[] range = daySlots.coveredSlots((LocalTime) row[0], slotMinutes, diningMinutes);
+            for (int i = range[0]; i < range[1]; i++) daySlots.reservedSeats()[i] += (Integer) row[1];
+        }
+        return daySlots;
+    }
+
+    private record SlotKey(Long locationId, LocalDate date) {
+    }
+
+    private record DaySlots(LocalTime openTime, LocalTime closeTime, int capacity, int[] reservedSeats) {
+
+        LocalTime slotStart(int index, int slotMinutes) {
+            return openTime.plusMinutes((long) index * slotMinutes);
+        }
+
+        // [from, to) slot indexes occupied by a booking starting at time
+        int[] coveredSlots(LocalTime time, int slotMinutes, int diningMinutes) {
+            if (time.isBefore(openTime) || time.isAfter(closeTime)) return new int[]{0, 0};
+            int minutesFromOpen = (int) Duration.between(openTime, time).toMinutes();
+            int from = Math.min(minutesFromOpen / slotMinutes, reservedSeats.length - 1);
+            int to = Math.min((minutesFromOpen + diningMinutes + slotMinutes - 1) / slotMinutes, reservedSeats.length);
+            return new int[]{Math.max(from, 0), Math.max(to, from + 1)};
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.foodbookingplatform.services.impl;
+
+import com.foodbookingplatform.models.entities.BillingRun;
+import com.foodbookingplatform.models.entities.BillingRunChunk;
+import com.foodbookingplatform.models.enums.BillingRunStatus;
+import com.foodbookingplatform.models.exception.ResourceNotFoundException;
+import com.foodbookingplatform.models.payload.dto.billing.BillingRunResponse;
+import com.foodbookingplatform.models.payload.dto.billing.CommissionTotal;
+import com.foodbookingplatform.repositories.BillingRunChunkRepository;
+import com.foodbookingplatform.repositories.BillingRunRepository;
+import com.foodbookingplatform.repositories.UserRepository;
+import com.foodbookingplatform.services.CommissionLedgerService;
+import com.foodbookingplatform.services.MonthlyBillingService;
+import com.foodbookingplatform.utils.DateTimeUtil;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class MonthlyBillingServiceImpl implements MonthlyBillingService {
+
+    @Value("${billing.chunk-size}")
+    private int chunkSize;
+    @Value("${billing.worker-threads}")
+    private int workerThreads;
+
+    private final UserRepository userRepository;
+    private final CommissionLedgerService commissionLedgerService;
+    private final BillingRunRepository billingRunRepository;
+    private final BillingRunChunkRepository billingRunChunkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ModelMapper mapper;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private ExecutorService workers;
+    // Runs a resumed billing run; it waits on its chunks, so it cannot take a worker thread itself
+    private ExecutorService coordinator;
+
+    @PostConstruct
+    public void startWorkers() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerThreads, task -> {
+            Thread thread = new Thread(task, "billing-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        coordinator = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "billing-run");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stopWorkers() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    // Full recomputation from raw bookings; the ledger itself is kept current by CommissionLedgerService
+    @Override
+    @Scheduled(cron = "0 0 1 * * ?")
+    public void calculateMonthlyBilling() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Monthly billing is already running, skipping this trigger");
+            return;
+        }
+        try {
+            runBilling();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // A run cut short by a restart is picked up where its last finished chunk left off
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRun() {
+        LocalDate today = DateTimeUtil.nowInVietnam().toLocalDate();
+        if (billingRunRepository.findFirstByRunDateAndStatusOrderByIdDesc(today, BillingRunStatus.RUNNING).isPresent()) {
+            log.info("Resuming interrupted monthly billing run of {}", today);
+            // Off the startup thread, readiness does not wait for the whole run
+            coordinator.execute(this::calculateMonthlyBilling);
+        }
+    }
+
+    @Override
+    public BillingRunResponse getLatestBillingRun() {
+        BillingRun run = billingRunRepository.findFirstByOrderByIdDesc()
+                .orElseThrow(() -> new ResourceNotFoundException("Billing run"));
+        return mapper.map(run, BillingRunResponse.class);
+    }
+
+    private void runBilling() {
+        long attemptStart = System.currentTimeMillis();
+        LocalDateTime now = DateTimeUtil.nowInVietnam();
+        LocalDate today = now.toLocalDate();
+        YearMonth month = YearMonth.from(today);
+
+        transactionTemplate.executeWithoutResult(status ->
+                billingRunRepository.failStaleRuns(today, BillingRunStatus.RUNNING, BillingRunStatus.FAILED));
+        BillingRun run = billingRunRepository.findFirstByRunDateAndStatusOrderByIdDesc(today, BillingRunStatus.RUNNING)
+                .orElseGet(() -> newRun(today, month, now));
+
+        List<Long> adminIds = userRepository.findIdsByRoleName("LOCATION_ADMIN");
+        List<Long> pendingIds = withoutFinishedChunks(run.getId(), adminIds);
+        // Failed chunks are retried on resume, so only the failures of this attempt are counted
+        run.setTotalAdmins(adminIds.size());
+        run.setFailedAdmins(0);
+        billingRunRepository.save(run);
+        log.info("Starting monthly billing run {} for {}: {} of {} location admins pending",
+                run.getId(), month, pendingIds.size(), adminIds.size());
+
+        Map<Long, CommissionTotal> totals = commissionLedgerService.sumMonthFromBookings(month);
+        List<Future<Boolean>> chunks = new ArrayList<>();
+        for (int from = 0; from < pendingIds.size(); from += chunkSize) {
+            List<Long> chunk = pendingIds.subList(from, Math.min(from + chunkSize, pendingIds.size()));
+            chunks.add(workers.submit(() -> processChunk(run.getId(), chunk, totals, month)));
+        }
+
+        int failedChunks = 0;
+        for (Future<Boolean> chunk : chunks) {
+            try {
+                if (!chunk.get()) failedChunks++;
+            } catch (ExecutionException e) {
+                log.error("Monthly billing run {} lost a chunk", run.getId(), e.getCause());
+                failedChunks++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                // Left RUNNING on purpose: the next start resumes from the finished chunks
+                return;
+            }
+        }
+
+        // Counters were written by the workers, reload them before closing the run
+        BillingRun finishedRun = billingRunRepository.findById(run.getId()).orElse(run);
+        finishedRun.setStatus(failedChunks == 0 ? BillingRunStatus.COMPLETED : BillingRunStatus.FAILED);
+        finishedRun.setFinishedAt(DateTimeUtil.nowInVietnam());
+        finishedRun.setDurationMillis(finishedRun.getDurationMillis() + System.currentTimeMillis() - attemptStart);
+        billingRunRepository.save(finishedRun);
+        log.info("Completed monthly billing run {} in {} ms: {} admins processed, {} admins in {} failed chunks",
+                finishedRun.getId(), finishedRun.getDurationMillis(), finishedRun.getProcessedAdmins(),
+                finishedRun.getFailedAdmins(), failedChunks);
+    }
+
+    // Each chunk commits its payments, its checkpoint and its progress together
+    private boolean processChunk(Long runId, List<Long> userIds, Map<Long, CommissionTotal> totals, YearMonth month) {
+        Long firstUserId = userIds.get(0);
+        Long lastUserId = userIds.get(userIds.size() - 1);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                commissionLedgerService.writeMonthTotals(month, userIds, totals);
+                billingRunChunkRepository.save(new BillingRunChunk(null, runId, firstUserId, lastUserId, userIds.size(), userIds.toArray(Long[]::new),
+                        BillingRunStatus.COMPLETED, DateTimeUtil.nowInVietnam()));
+                billingRunRepository.addProcessedAdmins(runId, userIds.size());
+            });
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Monthly billing chunk {}..{} of run {} failed", firstUserId, lastUserId, runId, e);
+            transactionTemplate.executeWithoutResult(status -> {
+                billingRunChunkRepository.save(new BillingRunChunk(null, runId, firstUserId, lastUserId, userIds.size(), userIds.toArray(Long[]::new),
+                        BillingRunStatus.FAILED, DateTimeUtil.nowInVietnam()));
+                billingRunRepository.addFailedAdmins(runId, userIds.size());
+            });
+            return false;
+        }
+    }
+
+    // Finished chunks recorded the admins they billed; anyone else, also an admin added since, is still pending
+    private List<Long> withoutFinishedChunks(Long runId, List<Long> adminIds) {
+        Set<Long> finishedIds = new HashSet<>();
+        for (Long[] chunkUserIds : billingRunChunkRepository.findUserIds(runId, BillingRunStatus.COMPLETED)) {
+            if (chunkUserIds != null) Collections.addAll(finishedIds, chunkUserIds);
+        }
+        if (finishedIds.isEmpty()) return adminIds;
+
+        List<Long> pendingIds = new ArrayList<>();
+        for (Long adminId : adminIds) {
+            if (!finishedIds.contains(adminId)) pendingIds.add(adminId);
+        }
+        return pendingIds;
+    }
+
+    private BillingRun newRun(LocalDate today, YearMonth month, LocalDateTime startedAt) {
+        BillingRun run = new BillingRun();
+        run.setRunDate(today);
+        run.setMonth(month.getMonthValue());
+        run.setYear(month.getYear());
+        run.setStatus(BillingRunStatus.RUNNING);
+        run.setStartedAt(startedAt);
+        return billingRunRepository.save(run);
+    }
+}
@@ -0,0 +1,109 @@
+package com.foodbookingplatform.services.impl;
+
+import com.foodbookingplatform.models.enums.OfferTransition;
+import com.foodbookingplatform.services.OfferActivationService;
+import com.foodbookingplatform.utils.HierarchicalTimingWheel;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OfferActivationServiceImpl implements OfferActivationService {
+
+    private static final ZoneId VIETNAM_ZONE = ZoneId.of("Asia/Ho_Chi_Minh");
+    private static final int UPDATE_BATCH_SIZE = 500;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<OfferTransition, Consumer<List<Long>>> handlers = new EnumMap<>(OfferTransition.class);
+    // 1 second ticks, 5 levels of 64 buckets is enough to hold offers scheduled decades ahead
+    private final HierarchicalTimingWheel<ScheduledTransition> timingWheel = new HierarchicalTimingWheel<>(1000, 5, System.currentTimeMillis());
+    // Transitions that were already due when scheduled, fired on the next tick
+    private final Queue<ScheduledTransition> overdueTransitions = new ConcurrentLinkedQueue<>();
+
+    // Owners register at startup, before the first tick can hand them anything
+    @Override
+    public synchronized void registerHandler(OfferTransition transition, Consumer<List<Long>> handler) {
+        handlers.put(transition, handler);
+    }
+
+    // Offers changed inside a transaction are only queued once it commits, so the handler's UPDATE can see them.
+    // A stale entry left behind by a later date change is harmless: handlers only touch rows whose date is really due.
+    @Override
+    public void schedule(OfferTransition transition, Long id, LocalDateTime dueAt) {
+        if (dueAt == null) return;
+        ScheduledTransition scheduled = new ScheduledTransition(transition, id);
+        long dueMillis = dueAt.atZone(VIETNAM_ZONE).toInstant().toEpochMilli();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(dueMillis, scheduled);
+                }
+            });
+        } else {
+            add(dueMillis, scheduled);
+        }
+    }
+
+    // An idle tick only looks at the wheel, the database is queried when something is due
+    @Override
+    @Scheduled(fixedDelay = 1000)
+    public void fireDueTransitions() {
+        List<ScheduledTransition> due = timingWheel.advance(System.currentTimeMillis());
+        ScheduledTransition overdue;
+        while ((overdue = overdueTransitions.poll()) != null) due.add(overdue);
+        if (due.isEmpty()) return;
+
+        Map<OfferTransition, List<Long>> idsByTransition = new EnumMap<>(OfferTransition.class);
+        due.forEach(scheduled -> idsByTransition.computeIfAbsent(scheduled.transition(), t -> new ArrayList<>()).add(scheduled.id()));
+
+        for (Map.Entry<OfferTransition, List<Long>> entry : idsByTransition.entrySet()) {
+            Consumer<List<Long>> handler;
+            synchronized (this) {
+                handler = handlers.get(entry.getKey());
+            }
+            if (handler == null) {
+                log.warn("No handler registered for {}, {} offers skipped", entry.getKey(), entry.getValue().size());
+                continue;
+            }
+
+            List<Long> ids = entry.getValue();
+            for (int from = 0; from < ids.size(); from += UPDATE_BATCH_SIZE) {
+                List<Long> batch = ids.subList(from, Math.min(from + UPDATE_BATCH_SIZE, ids.size()));
+                try {
+                    transactionTemplate.executeWithoutResult(status -> handler.accept(batch));
+                } catch (RuntimeException e) {
+                    log.error("Error firing {} for {} offers, retrying on next tick", entry.getKey(), batch.size(), e);
+                    batch.forEach(id -> overdueTransitions.add(new ScheduledTransition(entry.getKey(), id)));
+                }
+            }
+        }
+    }
+
+    private void add(long dueMillis, ScheduledTransition scheduled) {
+        if (!timingWheel.add(dueMillis, scheduled)) overdueTransitions.add(scheduled);
+    }
+
+    private record ScheduledTransition(OfferTransition transition, Long id) {
+    }
+}
@@ -0,0 +1,203 @@
+package com.foodbookingplatform.services.impl;
+
+import com.foodbookingplatform.models.exception.RestaurantBookingException;
+import com.foodbookingplatform.models.payload.dto.payos.PayOSGatewayStatsResponse;
+import com.foodbookingplatform.services.PayOSGateway;
+import com.foodbookingplatform.utils.CircuitBreaker;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import vn.payos.PayOS;
+import vn.payos.exception.PayOSException;
+import vn.payos.type.CheckoutResponseData;
+import vn.payos.type.PaymentData;
+import vn.payos.type.PaymentLinkData;
+import vn.payos.type.Webhook;
+import vn.payos.type.WebhookData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PayOSGatewayImpl implements PayOSGateway {
+
+    private static final String CREATE_PAYMENT_LINK = "createPaymentLink";
+    private static final String GET_PAYMENT_LINK_INFORMATION = "getPaymentLinkInformation";
+    private static final String CONFIRM_WEBHOOK = "confirmWebhook";
+    // Upper bounds of the latency buckets in milliseconds, the last one catches everything slower
+    private static final long[] LATENCY_BUCKETS = {25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, Long.MAX_VALUE};
+
+    @Value("${payos.call-timeout-ms}")
+    private long callTimeoutMillis;
+    @Value("${payos.max-concurrent-calls}")
+    private int maxConcurrentCalls;
+    @Value("${payos.circuit-breaker.failure-threshold}")
+    private int failureThreshold;
+    @Value("${payos.circuit-breaker.open-seconds}")
+    private long openSeconds;
+
+    private final PayOS payOS;
+
+    private final Map<String, CallStats> stats = new ConcurrentHashMap<>();
+    private CircuitBreaker circuitBreaker;
+    // The SDK builds its own HTTP client without timeouts, so calls run here and the caller stops waiting after the timeout.
+    // A fixed pool without queue is the bulkhead: at most maxConcurrentCalls threads can ever be stuck on PayOS.
+    private ThreadPoolExecutor bulkhead;
+
+    @PostConstruct
+    public void start() {
+        circuitBreaker = new CircuitBreaker(failureThreshold, openSeconds * 1000);
+        AtomicInteger threadNumber = new AtomicInteger();
+        bulkhead = new ThreadPoolExecutor(maxConcurrentCalls, maxConcurrentCalls, 0, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(), task -> {
+            Thread thread = new Thread(task, "payos-call-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        bulkhead.shutdownNow();
+    }
+
+    @Override
+    public CheckoutResponseData createPaymentLink(PaymentData paymentData) throws Exception {
+        return call(CREATE_PAYMENT_LINK, () -> payOS.createPaymentLink(paymentData));
+    }
+
+    @Override
+    public PaymentLinkData getPaymentLinkInformation(long orderCode) throws Exception {
+        return call(GET_PAYMENT_LINK_INFORMATION, () -> payOS.getPaymentLinkInformation(orderCode));
+    }
+
+    @Override
+    public String confirmWebhook(String webhookUrl) throws Exception {
+        return call(CONFIRM_WEBHOOK, () -> payOS.confirmWebhook(webhookUrl));
+    }
+
+    // Only checks the signature locally, no remote call involved
+    @Override
+    public WebhookData verifyPaymentWebhookData(Webhook webhook) throws Exception {
+        return payOS.verifyPaymentWebhookData(webhook);
+    }
+
+    @Override
+    public List<PayOSGatewayStatsResponse> getStats() {
+        List<PayOSGatewayStatsResponse> result = new ArrayList<>();
+        stats.forEach((operation, callStats) -> result.add(callStats.toResponse(operation, circuitBreaker.state())));
+        return result;
+    }
+
+    private <T> T call(String operation, Callable<T> remoteCall) throws Exception {
+        CallStats callStats = stats.computeIfAbsent(operation, name -> new CallStats());
+        if (!circuitBreaker.tryAcquire()) {
+            callStats.rejections.incrementAndGet();
+            throw new RestaurantBookingException(HttpStatus.SERVICE_UNAVAILABLE, "Payment service is temporarily unavailable, please try again later!");
+        }
+
+        Future<T> future;
+        try {
+            future = bulkhead.submit(remoteCall);
+        } catch (RejectedExecutionException e) {
+            circuitBreaker.release();
+            callStats.rejections.incrementAndGet();
+            throw new RestaurantBookingException(HttpStatus.SERVICE_UNAVAILABLE, "Payment service is busy, please try again later!");
+        }
+
+        long start = System.nanoTime();
+        try {
+            T result = future.get(callTimeoutMillis, TimeUnit.MILLISECONDS);
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            circuitBreaker.onFailure();
+            callStats.timeouts.incrementAndGet();
+            log.warn("PayOS {} timed out after {} ms", operation, callTimeoutMillis);
+            throw new RestaurantBookingException(HttpStatus.GATEWAY_TIMEOUT, "Payment service did not answer in time, please try again!");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            // PayOS answered with a business error, so the provider itself is healthy
+            if (cause instanceof PayOSException || cause instanceof IllegalArgumentException) {
+                circuitBreaker.onSuccess();
+            } else {
+                circuitBreaker.onFailure();
+                callStats.failures.incrementAndGet();
+            }
+            throw cause instanceof Exception exception ? exception : e;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            circuitBreaker.release();
+            Thread.currentThread().interrupt();
+            throw e;
+        } finally {
+            callStats.record((System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private static final class CallStats {
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong timeouts = new AtomicLong();
+        private final AtomicLong rejections = new AtomicLong();
+        private final AtomicLong totalMillis = new AtomicLong();
+        private final AtomicLong maxMillis = new AtomicLong();
+        private final AtomicLongArray buckets = new AtomicLongArray(LATENCY_BUCKETS.length);
+
+        void record(long millis) {
+            calls.incrementAndGet();
+            totalMillis.addAndGet(millis);
+            maxMillis.accumulateAndGet(millis, Math::max);
+            int bucket = 0;
+            while (millis > LATENCY_BUCKETS[bucket]) bucket++;
+            buckets.incrementAndGet(bucket);
+        }
+
+        PayOSGatewayStatsResponse toResponse(String operation, String circuitState) {
+            long callCount = calls.get();
+            long p95Rank = (long) Math.ceil(callCount * 0.95);
+            long p95 = 0;
+            long seen = 0;
+            for (int i = 0; i < LATENCY_BUCKETS.length && callCount > 0; i++) {
+                seen += buckets.get(i);
+                if (seen >= p95Rank) {
+                    p95 = i == LATENCY_BUCKETS.length - 1 ? maxMillis.get() : LATENCY_BUCKETS[i];
+                    break;
+                }
+            }
+            return PayOSGatewayStatsResponse.builder()
+                    .operation(operation)
+                    .calls(callCount)
+                    .failures(failures.get())
+                    .timeouts(timeouts.get())
+                    .rejections(rejections.get())
+                    .averageMillis(callCount == 0 ? 0 : (double) totalMillis.get() / callCount)
+                    .maxMillis(maxMillis.get())
+                    .p95Millis(p95)
+                    .circuitState(circuitState)
+                    .build();
+        }
+    }
+}
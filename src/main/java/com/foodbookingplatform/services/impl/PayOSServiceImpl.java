@@ -9,37 +9,49 @@ import com.foodbookingplatform.models.payload.dto.payos.CreatePaymentDTO;
 import com.foodbookingplatform.models.payload.dto.payos.ItemDTO;
 import com.foodbookingplatform.models.payload.dto.payos.WebhookUrlDTO;
 import com.foodbookingplatform.repositories.UserRepository;
+import com.foodbookingplatform.services.PayOSGateway;
 import com.foodbookingplatform.services.PayOSService;
+import com.foodbookingplatform.utils.DateTimeUtil;
 import com.foodbookingplatform.utils.PaymentCodeGenerator;
 import org.apache.commons.codec.binary.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import vn.payos.PayOS;
 import vn.payos.type.CheckoutResponseData;
 import vn.payos.type.ItemData;
 import vn.payos.type.PaymentData;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.time.YearMonth;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @Transactional
 public class PayOSServiceImpl implements PayOSService {
-    private final PayOS payOS;
+    private final PayOSGateway payOSGateway;
     private final UserRepository userRepository;
 
     @Value("${payos.expired-time-minutes}")
     private String EXPIRED_TIME;
+    @Value("${payos.commission-link.status-check-seconds}")
+    private long statusCheckSeconds;
     private final long COMMISSION_PAYMENT_CODE = 200;
     private final long ORDER_PAYMENT_CODE = 100;
+    // A link about to expire is not handed out again, the admin needs time to scan and pay it
+    private static final long MIN_REMAINING_SECONDS = 30;
+    private static final String PENDING_LINK_STATUS = "PENDING";
 
-    public PayOSServiceImpl(PayOS payOS, UserRepository userRepository) {
+    // Unexpired commission checkout links, so repeated clicks on "pay" do not open a new link at PayOS each time
+    private final Map<CommissionLinkKey, CommissionLink> commissionLinks = new ConcurrentHashMap<>();
+
+    public PayOSServiceImpl(PayOSGateway payOSGateway, UserRepository userRepository) {
         super();
-        this.payOS = payOS;
+        this.payOSGateway = payOSGateway;
         this.userRepository = userRepository;
     }
     @Override
@@ -52,7 +64,8 @@ public class PayOSServiceImpl implements PayOSService {
         List<ItemData> itemList;
         ObjectNode response = objectMapper.createObjectNode();
         try {
-            final long orderCode;
+            // Commission links get their order code only when a new link is really opened, see below
+            Long orderCode = null;
             final String buyerName = createPaymentDTO.getBuyerName();
             final String buyerPhone = createPaymentDTO.getBuyerPhone();
             final String description = createPaymentDTO.getDescription();
@@ -62,16 +75,19 @@ public class PayOSServiceImpl implements PayOSService {
                     .map(ItemDTO::getPrice)
                     .reduce(0, Integer::sum);
 
+            CommissionLinkKey commissionLinkKey = null;
             switch (createPaymentDTO.getPaymentType()) {
                 case "COMMISSION":
                     if (StringUtils.equals(user.getRole().getName(), "LOCATION_ADMIN")) {
-                        orderCode = Long.parseLong(PaymentCodeGenerator.generateCommissionCode(user.getId()));
+                        // The commission being paid is the one of the previous month, same as the webhook reads it from the order code
+                        YearMonth period = YearMonth.from(DateTimeUtil.nowInVietnam()).minusMonths(1);
+                        commissionLinkKey = new CommissionLinkKey(user.getId(), period, amount);
                     } else {
                         throw new RestaurantBookingException(HttpStatus.BAD_REQUEST, "Only Location Admin can pay commission.");
                     }
                     break;
                 case "ORDER":
-                    orderCode = Long.parseLong(PaymentCodeGenerator.generateOrderCode(user.getId()));
+                    orderCode = PaymentCodeGenerator.generateOrderCode(user.getId());
                     break;
                 default:
                     throw new RestaurantBookingException(HttpStatus.BAD_REQUEST, "Invalid type of payment type (Only COMMISSION or ORDER type)");
@@ -100,7 +116,9 @@ public class PayOSServiceImpl implements PayOSService {
                     .build();
             paymentData.setItems(itemList);
 
-            CheckoutResponseData data = payOS.createPaymentLink(paymentData);
+            CheckoutResponseData data = commissionLinkKey == null
+                    ? payOSGateway.createPaymentLink(paymentData)
+                    : commissionLink(commissionLinkKey, user.getId(), paymentData);
 
             response.put("error", 0);
             response.put("status", "success");
@@ -117,12 +135,65 @@ public class PayOSServiceImpl implements PayOSService {
         }
     }
 
+    // Concurrent clicks of the same admin wait for the first one instead of opening links of their own.
+    // A holder purged before its lock was taken is no longer cached, so the lookup is repeated
+    private CheckoutResponseData commissionLink(CommissionLinkKey key, long userId, PaymentData paymentData) throws Exception {
+        while (true) {
+            CommissionLink link = commissionLinks.computeIfAbsent(key, k -> new CommissionLink());
+            synchronized (link) {
+                if (commissionLinks.get(key) != link) continue;
+                if (!isReusable(link)) {
+                    paymentData.setOrderCode(PaymentCodeGenerator.generateCommissionCode(userId));
+                    link.data = payOSGateway.createPaymentLink(paymentData);
+                    link.expiredAt = paymentData.getExpiredAt();
+                    link.statusCheckedAt = Instant.now().getEpochSecond();
+                }
+                return link.data;
+            }
+        }
+    }
+
+    // The expiry is the one sent to PayOS, the response may not echo it. A link cancelled on the checkout page
+    // gets no webhook, so its status is asked again once the last answer is older than the check interval;
+    // when unsure, a new link is opened
+    private boolean isReusable(CommissionLink link) {
+        long now = Instant.now().getEpochSecond();
+        if (link.data == null || link.expiredAt - now < MIN_REMAINING_SECONDS) return false;
+        if (now - link.statusCheckedAt < statusCheckSeconds) return true;
+        try {
+            if (!PENDING_LINK_STATUS.equals(payOSGateway.getPaymentLinkInformation(link.data.getOrderCode()).getStatus())) return false;
+            link.statusCheckedAt = now;
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void evictCommissionLinks(long userId, YearMonth period) {
+        commissionLinks.keySet().removeIf(key -> key.userId() == userId && key.period().equals(period));
+    }
+
+    @Override
+    @Scheduled(fixedRate = 300000)
+    public void purgeExpiredCommissionLinks() {
+        long now = Instant.now().getEpochSecond();
+        for (Map.Entry<CommissionLinkKey, CommissionLink> entry : commissionLinks.entrySet()) {
+            CommissionLink link = entry.getValue();
+            // Taken under the holder's lock, so a request filling it is waited for instead of losing its link
+            synchronized (link) {
+                // Holders whose link could not be created are dropped as well
+                if (link.data == null || link.expiredAt <= now) commissionLinks.remove(entry.getKey(), link);
+            }
+        }
+    }
+
     @Override
     public ObjectNode confirmWebhook(WebhookUrlDTO requestBody) {
         ObjectMapper objectMapper = new ObjectMapper();
         ObjectNode response = objectMapper.createObjectNode();
         try {
-            String str = payOS.confirmWebhook(requestBody.getWebhookUrl());
+            String str = payOSGateway.confirmWebhook(requestBody.getWebhookUrl());
             response.set("data", objectMapper.valueToTree(str));
             response.put("error", 0);
             response.put("message", "ok");
@@ -136,4 +207,12 @@ public class PayOSServiceImpl implements PayOSService {
         }
     }
 
+    private record CommissionLinkKey(long userId, YearMonth period, int amount) {
+    }
+
+    private static final class CommissionLink {
+        private CheckoutResponseData data;
+        private long expiredAt;
+        private long statusCheckedAt;
+    }
 }
@@ -0,0 +1,154 @@
+package com.foodbookingplatform.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodbookingplatform.models.entities.PayOSTransaction;
+import com.foodbookingplatform.models.entities.PayOSWebhookEvent;
+import com.foodbookingplatform.models.entities.User;
+import com.foodbookingplatform.models.enums.WebhookEventStatus;
+import com.foodbookingplatform.repositories.MonthlyCommissionPaymentRepository;
+import com.foodbookingplatform.repositories.PayOSTransactionRepository;
+import com.foodbookingplatform.repositories.PayOSWebhookEventRepository;
+import com.foodbookingplatform.repositories.UserRepository;
+import com.foodbookingplatform.services.PayOSService;
+import com.foodbookingplatform.services.PayOSWebhookService;
+import com.foodbookingplatform.utils.DateTimeUtil;
+import com.foodbookingplatform.utils.PaymentCodeGenerator;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.payos.type.WebhookData;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PayOSWebhookServiceImpl implements PayOSWebhookService {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final int BATCH_SIZE = 100;
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final PayOSWebhookEventRepository webhookEventRepository;
+    private final PayOSTransactionRepository transactionRepository;
+    private final MonthlyCommissionPaymentRepository commissionPaymentRepository;
+    private final UserRepository userRepository;
+    private final PayOSService payOSService;
+    private final TransactionTemplate transactionTemplate;
+
+    // Only the verified data is stored, the webhook is acknowledged right after this insert
+    @Override
+    @Transactional
+    public void enqueue(WebhookData data) throws JsonProcessingException {
+        int inserted = webhookEventRepository.insertIfAbsent(
+                data.getOrderCode(), OBJECT_MAPPER.writeValueAsString(data), DateTimeUtil.nowInVietnam());
+        if (inserted == 0) log.info("Duplicate PayOS webhook for order code {} ignored", data.getOrderCode());
+    }
+
+    // A batch is applied in one transaction; if it fails, its events are retried one by one to isolate the bad one
+    @Override
+    @Scheduled(fixedDelay = 1000)
+    public void processPendingEvents() {
+        List<Long> ids;
+        do {
+            ids = webhookEventRepository.findIdsByStatus(WebhookEventStatus.PENDING, PageRequest.of(0, BATCH_SIZE));
+            if (ids.isEmpty()) return;
+            List<Long> batchIds = ids;
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        apply(webhookEventRepository.findAllByIdInAndStatus(batchIds, WebhookEventStatus.PENDING)));
+            } catch (RuntimeException e) {
+                log.warn("PayOS webhook batch failed, processing its events one by one: {}", e.getMessage());
+                batchIds.forEach(this::processEvent);
+            }
+        } while (ids.size() == BATCH_SIZE);
+    }
+
+    private void processEvent(Long id) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    apply(webhookEventRepository.findAllByIdInAndStatus(List.of(id), WebhookEventStatus.PENDING)));
+        } catch (RuntimeException e) {
+            log.error("PayOS webhook event {} failed", id, e);
+            transactionTemplate.executeWithoutResult(status -> webhookEventRepository.findById(id).ifPresent(event -> {
+                event.setAttempts(event.getAttempts() + 1);
+                event.setLastError(e.getMessage());
+                if (event.getAttempts() >= MAX_ATTEMPTS) event.setStatus(WebhookEventStatus.FAILED);
+            }));
+        }
+    }
+
+    // Safe to repeat: a paid commission stays untouched and a recorded order code is not inserted twice
+    private void apply(List<PayOSWebhookEvent> events) {
+        if (events.isEmpty()) return;
+        List<WebhookData> payloads = new ArrayList<>(events.size());
+        for (PayOSWebhookEvent event : events) payloads.add(readPayload(event));
+        Set<Long> recordedOrderCodes = new HashSet<>(transactionRepository.findExistingOrderCodes(
+                payloads.stream().map(WebhookData::getOrderCode).toList()));
+
+        List<PayOSTransaction> transactions = new ArrayList<>();
+        LocalDateTime now = DateTimeUtil.nowInVietnam();
+        for (int i = 0; i < events.size(); i++) {
+            WebhookData data = payloads.get(i);
+            long orderCode = data.getOrderCode();
+            long userId = PaymentCodeGenerator.getUserIdFromOrderCode(orderCode);
+
+            if (PaymentCodeGenerator.isCommissionCode(orderCode)) {
+                int month = PaymentCodeGenerator.getLastMonthFromOrderCode(orderCode);
+                int year = PaymentCodeGenerator.getLastYearFromOrderCode(orderCode);
+                commissionPaymentRepository.markPaid(userId, month, year, data.getTransactionDateTime());
+                // The paid link must not be handed out again for this period
+                payOSService.evictCommissionLinks(userId, YearMonth.of(year, month));
+            }
+            // A reference is enough for the foreign key, the user's transaction collection is never loaded
+            if (recordedOrderCodes.add(orderCode))
+                transactions.add(mapToTransaction(data, userRepository.getReferenceById(userId)));
+
+            events.get(i).setStatus(WebhookEventStatus.PROCESSED);
+            events.get(i).setProcessedAt(now);
+        }
+        transactionRepository.saveAll(transactions);
+    }
+
+    private WebhookData readPayload(PayOSWebhookEvent event) {
+        try {
+            return OBJECT_MAPPER.readValue(event.getPayload(), WebhookData.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable PayOS webhook payload of event " + event.getId(), e);
+        }
+    }
+
+    private PayOSTransaction mapToTransaction(WebhookData data, User user) {
+        return PayOSTransaction.builder()
+                .orderCode(data.getOrderCode())
+                .amount(data.getAmount())
+                .description(data.getDescription())
+                .accountNumber(data.getAccountNumber())
+                .reference(data.getReference())
+                .transactionDateTime(data.getTransactionDateTime())
+                .currency(data.getCurrency())
+                .paymentLinkId(data.getPaymentLinkId())
+                .code(data.getCode())
+                .desc(data.getDesc())
+                .counterAccountBankId(data.getCounterAccountBankId())
+                .counterAccountBankName(data.getCounterAccountBankName())
+                .counterAccountName(data.getCounterAccountName())
+                .counterAccountNumber(data.getCounterAccountNumber())
+                .virtualAccountName(data.getVirtualAccountName())
+                .virtualAccountNumber(data.getVirtualAccountNumber())
+                .user(user)
+                .build();
+    }
+}
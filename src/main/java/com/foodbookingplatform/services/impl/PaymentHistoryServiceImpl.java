@@ -5,8 +5,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.foodbookingplatform.models.constants.AppConstants;
 import com.foodbookingplatform.models.entities.*;
+import com.foodbookingplatform.models.enums.EntityStatus;
 import com.foodbookingplatform.models.enums.LocationBookingStatus;
 import com.foodbookingplatform.models.enums.PaymentStatus;
+import com.foodbookingplatform.models.events.LocationBookingStatusChangedEvent;
 
 import com.foodbookingplatform.models.exception.ResourceNotFoundException;
 import com.foodbookingplatform.models.exception.RestaurantBookingException;
@@ -18,11 +20,10 @@ import com.foodbookingplatform.models.payload.dto.paymenthistory.PaymentHistoryR
 import com.foodbookingplatform.models.payload.dto.paymenthistory.RecentPaymentResponse;
 import com.foodbookingplatform.repositories.*;
 import com.foodbookingplatform.services.EmailService;
-import com.foodbookingplatform.services.LocationBookingService;
-import com.foodbookingplatform.services.LocationService;
+import com.foodbookingplatform.services.PayOSGateway;
 import com.foodbookingplatform.services.PaymentHistoryService;
+import com.foodbookingplatform.services.PayOSWebhookService;
 import com.foodbookingplatform.utils.DateTimeUtil;
-import com.foodbookingplatform.utils.PaymentCodeGenerator;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -37,9 +38,9 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.web.bind.annotation.RequestBody;
 
-import vn.payos.PayOS;
 import vn.payos.type.Webhook;
 import vn.payos.type.WebhookData;
 
@@ -47,60 +48,89 @@ import java.text.DateFormatSymbols;
 import java.text.NumberFormat;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class PaymentHistoryServiceImpl extends BaseServiceImpl<PaymentHistory, PaymentHistoryRequest, PaymentHistoryResponse> implements PaymentHistoryService {
 
-    private final PayOS payOS;
+    private static final YearMonth RELEASED_MONTH = YearMonth.of(2024, 10);
+    // The month part of the mail is the same for every admin, only the amounts are filled in per row
+    private static final String REMINDER_SUBJECT = "[SkedEat Admin] Thanh toán phí sử dụng dịch vụ web";
+    private static final String REMINDER_HEADER =
+            "<p>Kính gửi Quý Khách,</p>" +
+            "<p>Đây là một lời nhắc nhở về thanh toán của bạn cho tháng %d/%d.</p>" +
+            "<p><strong>Chi tiết thanh toán:</strong></p>" +
+            "<ul>";
+    private static final String REMINDER_DETAILS =
+            "<li>Phí cố định hàng tháng: %s VND</li>" +
+            "<li>Tổng phí hoa hồng tháng này: %s VND</li>" +
+            "<li>Tổng số lượng đơn hoàn thành: %d</li>" +
+            "</ul>" +
+            "<p><strong>Tổng số tiền cần thanh toán:</strong> %s VND</p>" +
+            "<br>" +
+            "<p>Xin vui lòng đảm bảo thanh toán đúng hạn.</p>" +
+            "<p><strong>Hạn thanh toán:</strong> %s </p>" + "<br>" +
+            "<p><a href=\"%s\">Nhấp vào đây để chuyển tới trang thanh toán (Đăng nhập nếu có) </a></p>" +
+            "<p>Cảm ơn bạn!</p>";
+    // Đường dẫn đến trang thanh toán
+    private static final String PAYMENT_LINK = "https://skedeat.site/manage/fees";
+    private static final DateTimeFormatter EXPIRED_AT_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private final PayOSGateway payOSGateway;
     private final PaymentHistoryRepository paymentHistoryRepository;
     private final PaymentMethodRepository paymentMethodRepository;
     private final LocationBookingRepository locationBookingRepository;
-    private final PayOSTransactionRepository transactionRepository;
+    private final PayOSWebhookService payOSWebhookService;
     private final MonthlyCommissionPaymentRepository commissionPaymentRepository;
     private final UserRepository userRepository;
     private final LocationRepository locationRepository;
+    private final BookingDailyRollupRepository bookingDailyRollupRepository;
+    private final LocationMonthlyRevenueRepository locationMonthlyRevenueRepository;
     private final EmailService emailService;
-    private final LocationBookingService locationBookingService;
-    private final LocationService locationService;
     private final ModelMapper mapper;
+    // Revenue of months the nightly rollup reconcile no longer reaches, dropped again when one of their bookings changes
+    private final Map<YearMonth, Double> closedMonthRevenues = new ConcurrentHashMap<>();
 
+    @Value("${booking-rollup.reconcile-lookback-days}")
+    private long reconcileLookbackDays;
     @Value("${expired-payment-day}")
     private String EXPIRED_PAYMENT_DAY;
     @Value("${fixed-amount}")
     private String FIXED_AMOUNT;
 
     public PaymentHistoryServiceImpl(
-            PayOS payOS,
+            PayOSGateway payOSGateway,
             PaymentHistoryRepository paymentHistoryRepository,
             PaymentMethodRepository paymentMethodRepository,
             LocationBookingRepository locationBookingRepository,
-            PayOSTransactionRepository transactionRepository,
+            PayOSWebhookService payOSWebhookService,
             MonthlyCommissionPaymentRepository commissionPaymentRepository,
             UserRepository userRepository,
             LocationRepository locationRepository,
+            BookingDailyRollupRepository bookingDailyRollupRepository,
+            LocationMonthlyRevenueRepository locationMonthlyRevenueRepository,
             EmailService emailService,
-            ModelMapper modelMapper,
-            LocationBookingService locationBookingService,
-            LocationService locationService
+            ModelMapper modelMapper
     ) {
         super(paymentHistoryRepository, modelMapper, PaymentHistory.class, PaymentHistoryRequest.class, PaymentHistoryResponse.class);
-        this.payOS = payOS;
+        this.payOSGateway = payOSGateway;
         this.paymentHistoryRepository = paymentHistoryRepository;
         this.paymentMethodRepository = paymentMethodRepository;
         this.locationBookingRepository = locationBookingRepository;
-        this.transactionRepository = transactionRepository;
+        this.payOSWebhookService = payOSWebhookService;
         this.commissionPaymentRepository = commissionPaymentRepository;
         this.userRepository = userRepository;
         this.locationRepository = locationRepository;
+        this.bookingDailyRollupRepository = bookingDailyRollupRepository;
+        this.locationMonthlyRevenueRepository = locationMonthlyRevenueRepository;
         this.emailService = emailService;
         this.mapper = modelMapper;
-        this.locationBookingService = locationBookingService;
-        this.locationService = locationService;
     }
 
     @Override
@@ -144,31 +174,10 @@ public class PaymentHistoryServiceImpl extends BaseServiceImpl<PaymentHistory, P
             response.put("message", "Webhook delivered");
             response.set("data", null);
 
-            WebhookData data = payOS.verifyPaymentWebhookData(webhookBody);
+            WebhookData data = payOSGateway.verifyPaymentWebhookData(webhookBody);
             System.out.println("PAYOS DATA WEBHOOK: " + data.getCode() + " " + data.getPaymentLinkId() + " " + data.getDesc());
-            long orderCode = data.getOrderCode();
-
-            long userId = PaymentCodeGenerator.getUserIdFromOrderCode(orderCode);
-            int month = PaymentCodeGenerator.getLastMonthFromOrderCode(orderCode);
-            int year = PaymentCodeGenerator.getLastYearFromOrderCode(orderCode);
-            String paymentCode = PaymentCodeGenerator.getPaymentCodeFromOrderCode(orderCode);
-
-            if (paymentCode.equals(PaymentCodeGenerator.getCOMMISSION_PAYMENT_CODE())) {
-                Optional<MonthlyCommissionPayment> commissionPaymentOpt = commissionPaymentRepository.findByUserIdAndMonthAndYear(userId, month, year);
-                if (commissionPaymentOpt.isPresent()) {
-                    MonthlyCommissionPayment commissionPayment = commissionPaymentOpt.get();
-                    commissionPayment.setPaid(true);
-                    commissionPayment.setPaidAt(data.getTransactionDateTime());
-                    commissionPaymentRepository.save(commissionPayment);
-                }
-            }
-
-            User user = userRepository.findById(PaymentCodeGenerator.getUserIdFromOrderCode(data.getOrderCode()))
-                    .orElseThrow(() -> new ResourceNotFoundException("User", "userId", userId));
-
-            PayOSTransaction transaction = transactionRepository.save(mapToTransaction(data, user));
-            user.getTransactions().add(transaction);
-            userRepository.save(user);
+            // Commission and transaction updates are applied by PayOSWebhookService in the background
+            payOSWebhookService.enqueue(data);
 
             return response;
         } catch (Exception e) {
@@ -189,143 +198,42 @@ public class PaymentHistoryServiceImpl extends BaseServiceImpl<PaymentHistory, P
                 .orElse(new MonthlyCommissionPayment());
     }
 
-    public Map<String, Object> calculateMonthlyPayment(User userId, int month, int year) {
-        // Lấy tất cả các booking thành công của user
-        List<LocationBooking> successfulBookings = locationBookingRepository.findAllByLocationUserAndStatus(
-                userId, LocationBookingStatus.SUCCESSFUL);
-
-        // Tạo Map để trả về kết quả
-        Map<String, Object> response = new HashMap<>();
-
-        // Sử dụng stream để tính tổng số lượng booking và tổng tiền commission trong cùng 1 lần
-        DoubleSummaryStatistics stats = successfulBookings.stream()
-                .filter(booking -> {
-                    LocalDate bookingDate = booking.getBookingDate(); // Giả sử getBookingDate trả về LocalDate
-                    return bookingDate.getMonthValue() == month && bookingDate.getYear() == year;
-                })
-                .collect(Collectors.summarizingDouble(LocationBooking::getCommission));
-
-        // Đưa totalAmount và totalBooking vào response map
-        response.put("totalAmount", (float) stats.getSum());  // Tổng tiền từ commission
-        response.put("totalBooking", Integer.parseInt(String.valueOf(stats.getCount())));       // Tổng số booking
-
-        return response;
-    }
-
-    public void sendEmailReminder(User user, int month, int year, int fixedFee, int totalAmount, LocalDateTime expiredAt, int totalBooking) {
-        String subject = "[SkedEat Admin] Thanh toán phí sử dụng dịch vụ web";
-        String formattedTotalAmount = formatCurrency(totalAmount); // Định dạng tổng số tiền
-        String formattedFixedFee = formatCurrency(fixedFee);
-        String formattedGrandTotal = formatCurrency(300000 + totalAmount); // Tính tổng số tiền
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        String formatExpiredAt = expiredAt.format(formatter);
-
-
-        // Đường dẫn đến trang thanh toán (thay đổi theo cấu trúc URL của bạn)
-        String paymentLink = "https://skedeat.site/manage/fees"; // Thay thế bằng đường dẫn thực tế
-
-        String content = String.format(
-                "<p>Kính gửi Quý Khách,</p>" +
-                        "<p>Đây là một lời nhắc nhở về thanh toán của bạn cho tháng %d/%d.</p>" +
-                        "<p><strong>Chi tiết thanh toán:</strong></p>" +
-                        "<ul>" +
-                        "<li>Phí cố định hàng tháng: %s VND</li>" +
-                        "<li>Tổng phí hoa hồng tháng này: %s VND</li>" +
-                        "<li>Tổng số lượng đơn hoàn thành: %d</li>" +
-                        "</ul>" +
-                        "<p><strong>Tổng số tiền cần thanh toán:</strong> %s VND</p>" +
-                        "<br>" +
-                        "<p>Xin vui lòng đảm bảo thanh toán đúng hạn.</p>" +
-                        "<p><strong>Hạn thanh toán:</strong> %s </p>" + "<br>" +
-                        "<p><a href=\"%s\">Nhấp vào đây để chuyển tới trang thanh toán (Đăng nhập nếu có) </a></p>" + // Thêm liên kết thanh toán
-                        "<p>Cảm ơn bạn!</p>",
-                month, year, formattedFixedFee, formattedTotalAmount, totalBooking, formattedGrandTotal, formatExpiredAt, paymentLink // Tính tổng số tiền
-        );
-
-        // Gọi đến phương thức sendEmail đã có
-        emailService.sendEmail(user.getEmail(), subject, content);
-    }
-
-    private String formatCurrency(int amount) {
-        NumberFormat formatter = NumberFormat.getInstance(new Locale("vi", "VN"));
-        return formatter.format(amount);
-    }
-
     @Scheduled(cron = "0 0 9 1,9 * ?")
-//    @Scheduled(cron = "0 * * * * ?")  // Mỗi phút
     public void sendEmail() {
-        // Logic gửi email ở đây
         LocalDate currentDate = LocalDate.now(ZoneId.of("Asia/Ho_Chi_Minh"));
         currentDate = currentDate.minusMonths(1);
         int month = currentDate.getMonthValue();
         int year = currentDate.getYear();
 
         List<MonthlyCommissionPayment> unPaidCommission = commissionPaymentRepository.findAllByIsPaidFalseAndMonthAndYear(month, year);
+        if (unPaidCommission.isEmpty()) return;
 
-        unPaidCommission.forEach(c -> {
-            Optional<User> user = userRepository.findById(c.getUserId());
-            user.ifPresent(value -> sendEmailReminder(value, c.getMonth(), c.getYear(), c.getFixedAmount(),
-                    (int) Math.floor(c.getTotalAmount()), c.getExpiredAt(), c.getTotalBooking()));
-            log.info("Gửi email thông báo nhắc nhở thanh toán tiền phí cố định và hoa hồng cho userId: {}, month: {}, year: {}",
-                    user.get().getId(), month, year);
-                });
-    }
-
-    @Scheduled(cron = "0 * * * * ?")  // Mỗi phút
-    @Transactional
-    public void calculateAndSendMonthlyBilling() {
-        log.info("Starting monthly billing calculation...");
-        String roleName = "LOCATION_ADMIN";
-        List<User> locationAdmins = userRepository.findAllByRoleName(roleName);
-        LocalDate currentDate = LocalDate.now(ZoneId.of("Asia/Ho_Chi_Minh"));
-        int month = currentDate.getMonthValue();
-        int year = currentDate.getYear();
-
-        for (User user : locationAdmins) {
-            try {
-                processUserCommission(user, month, year);
-            } catch (Exception e) {
-                log.error("Error processing commission for userId: {}", user, e);
-            }
+        Map<Long, String> emails = new HashMap<>();
+        for (Object[] row : userRepository.findEmailsByIdIn(unPaidCommission.stream().map(MonthlyCommissionPayment::getUserId).toList())) {
+            emails.put((Long) row[0], (String) row[1]);
         }
-        log.info("Completed monthly billing calculation.");
-    }
 
-    @Transactional
-    public void processUserCommission(User user, int month, int year) {
-        // Kiểm tra xem đã có bản ghi cho tháng này chưa
-        Optional<MonthlyCommissionPayment> existingPaymentOpt = commissionPaymentRepository.findByUserIdAndMonthAndYear(user.getId(), month, year);
-        Map<String, Object> response = calculateMonthlyPayment(user, month, year);
-        float totalAmount = (float) response.get("totalAmount");
-        int totalBooking = (int) response.get("totalBooking");
-        int roundedAmount = (int) Math.floor(totalAmount);
-        if (existingPaymentOpt.isPresent()) {
-            MonthlyCommissionPayment payment = existingPaymentOpt.get();
-            payment.setTotalAmount(roundedAmount);
-            payment.setTotalBooking(totalBooking);
-            commissionPaymentRepository.save(payment);
-            log.info("Updated commission payment for userId: {}, month: {}, year: {}, amount: {}",
-                    user.getId(), month, year, roundedAmount);
-        } else {
-            LocalDateTime now = DateTimeUtil.nowInVietnam().plusMonths(1);
-            int presentMonth = now.getMonthValue();
-            int presentYear = now.getYear();
-            LocalDateTime expiredAt = LocalDateTime.of(presentYear, presentMonth,
-                    Integer.parseInt(EXPIRED_PAYMENT_DAY), 23, 59, 59);
-            MonthlyCommissionPayment newPayment = new MonthlyCommissionPayment();
-            newPayment.setUserId(user.getId());
-            newPayment.setMonth(month);
-            newPayment.setYear(year);
-            newPayment.setTotalAmount(roundedAmount);
-            newPayment.setPaid(false);
-            newPayment.setTotalBooking(totalBooking);
-            newPayment.setExpiredAt(expiredAt);
-            newPayment.setFixedAmount(Integer.parseInt(FIXED_AMOUNT));
-
-            commissionPaymentRepository.save(newPayment);
-            log.info("Created new commission payment for userId: {}, month: {}, year: {}, amount: {}",
-                    user.getId(), month, year, roundedAmount);
+        NumberFormat currencyFormat = NumberFormat.getInstance(new Locale("vi", "VN"));
+        String header = String.format(REMINDER_HEADER, month, year);
+        int queued = 0;
+        for (MonthlyCommissionPayment c : unPaidCommission) {
+            String email = emails.get(c.getUserId());
+            if (email == null) {
+                log.warn("Không tìm thấy email của userId: {} để nhắc thanh toán tháng {}/{}", c.getUserId(), month, year);
+                continue;
+            }
+            int totalAmount = (int) Math.floor(c.getTotalAmount());
+            String content = header + String.format(REMINDER_DETAILS,
+                    currencyFormat.format(c.getFixedAmount()),
+                    currencyFormat.format(totalAmount),
+                    c.getTotalBooking(),
+                    currencyFormat.format(c.getFixedAmount() + totalAmount),
+                    c.getExpiredAt().format(EXPIRED_AT_FORMATTER),
+                    PAYMENT_LINK);
+            emailService.queueEmail(email, REMINDER_SUBJECT, content);
+            queued++;
         }
+        log.info("Đã xếp hàng {} email nhắc nhở thanh toán tiền phí cố định và hoa hồng cho tháng {}/{}", queued, month, year);
     }
 
     private PaymentHistory mapAndSavePaymentHistory(PaymentHistoryRequest request, boolean createMode) {
@@ -357,52 +265,9 @@ public class PaymentHistoryServiceImpl extends BaseServiceImpl<PaymentHistory, P
                 .orElseThrow(() -> new ResourceNotFoundException("PaymentMethod", "id", paymentMethodId));
     }
 
-    private PayOSTransaction mapToTransaction(WebhookData data, User user) {
-        return PayOSTransaction.builder()
-                .orderCode(data.getOrderCode())
-                .amount(data.getAmount())
-                .description(data.getDescription())
-                .accountNumber(data.getAccountNumber())
-                .reference(data.getReference())
-                .transactionDateTime(data.getTransactionDateTime())
-                .currency(data.getCurrency())
-                .paymentLinkId(data.getPaymentLinkId())
-                .code(data.getCode())
-                .desc(data.getDesc())
-                .counterAccountBankId(data.getCounterAccountBankId())
-                .counterAccountBankName(data.getCounterAccountBankName())
-                .counterAccountName(data.getCounterAccountName())
-                .counterAccountNumber(data.getCounterAccountNumber())
-                .virtualAccountName(data.getVirtualAccountName())
-                .virtualAccountNumber(data.getVirtualAccountNumber())
-                .user(user)
-                .build();
-    }
-
     @Override
     public double getTotalRevenueOfSystem(int month, int year) {
-
-        double totalRevenueOfSystem;
-
-        // only calculate the revenue after the released date of skedeat application
-        if (month < 10 && year <= 2024) return 0;
-
-        // not calculate the future date compare to the day this api is called
-        if (month > LocalDate.now().getMonthValue() && year >= LocalDate.now().getYear()) return 0;
-
-        // revenue from locations
-        int numberOfSuccessfulBookings = locationBookingService.countAllBookingsInSystem(LocationBookingStatus.SUCCESSFUL, month, year);
-        int numberOfActiveLocations = locationService.getNumberOfActiveLocationsInSystem();
-
-        double revenueFromBooking = numberOfSuccessfulBookings * AppConstants.CHARGE_FEE_PER_BOOKING;
-        double revenueFromLocationMonthlySubscriptionFee = numberOfActiveLocations * AppConstants.SUBSCRIPTION_FEE_PER_MONTH;
-
-        // revenue from ads registration of locations
-
-
-        totalRevenueOfSystem = revenueFromBooking + revenueFromLocationMonthlySubscriptionFee;
-
-        return totalRevenueOfSystem;
+        return revenueOfMonths(year, month, month)[month];
     }
 
     @Override
@@ -411,17 +276,67 @@ public class PaymentHistoryServiceImpl extends BaseServiceImpl<PaymentHistory, P
 
         // Get month names
         String[] months = new DateFormatSymbols().getShortMonths();
+        double[] revenues = revenueOfMonths(year, 1, 12);
 
         for (int month = 1; month <= 12; month++) {
-            double revenue = getTotalRevenueOfSystem(month, year);
             String monthName = months[month - 1]; // 0-based index
-
-            annualRevenue.add(new MonthlyRevenueResponse(monthName, revenue));
+            annualRevenue.add(new MonthlyRevenueResponse(monthName, revenues[month]));
         }
 
         return annualRevenue;
     }
 
+    // Revenue indexed by month; months that are not memoized yet are computed together in one grouped query
+    private double[] revenueOfMonths(int year, int fromMonth, int toMonth) {
+        double[] revenues = new double[13];
+        LocalDate today = DateTimeUtil.nowInVietnam().toLocalDate();
+        YearMonth currentMonth = YearMonth.from(today);
+        LocalDate reconciledFrom = today.minusDays(reconcileLookbackDays);
+
+        int firstMissing = 0;
+        int lastMissing = 0;
+        for (int month = fromMonth; month <= toMonth; month++) {
+            YearMonth yearMonth = YearMonth.of(year, month);
+            // only calculate the revenue after the released date of skedeat application and not for future months
+            if (yearMonth.isBefore(RELEASED_MONTH) || yearMonth.isAfter(currentMonth)) continue;
+            Double closedRevenue = closedMonthRevenues.get(yearMonth);
+            if (closedRevenue != null) {
+                revenues[month] = closedRevenue;
+            } else {
+                if (firstMissing == 0) firstMissing = month;
+                lastMissing = month;
+            }
+        }
+        if (firstMissing == 0) return revenues;
+
+        Map<Integer, Long> bookingCounts = new HashMap<>();
+        Long activeLocations = null;
+        for (Object[] row : bookingDailyRollupRepository.sumBookingCountByMonth(LocationBookingStatus.SUCCESSFUL, EntityStatus.ACTIVE,
+                YearMonth.of(year, firstMissing).atDay(1), YearMonth.of(year, lastMissing).plusMonths(1).atDay(1))) {
+            bookingCounts.put(((Number) row[0]).intValue(), ((Number) row[1]).longValue());
+            activeLocations = ((Number) row[2]).longValue();
+        }
+        if (activeLocations == null) activeLocations = (long) locationRepository.countLocationsByStatusEquals(EntityStatus.ACTIVE);
+
+        for (int month = firstMissing; month <= lastMissing; month++) {
+            YearMonth yearMonth = YearMonth.of(year, month);
+            if (yearMonth.isBefore(RELEASED_MONTH) || closedMonthRevenues.containsKey(yearMonth)) continue;
+
+            double revenueFromBooking = bookingCounts.getOrDefault(month, 0L) * AppConstants.CHARGE_FEE_PER_BOOKING;
+            double revenueFromLocationMonthlySubscriptionFee = activeLocations * AppConstants.SUBSCRIPTION_FEE_PER_MONTH;
+            revenues[month] = revenueFromBooking + revenueFromLocationMonthlySubscriptionFee;
+            if (yearMonth.atEndOfMonth().isBefore(reconciledFrom)) closedMonthRevenues.put(yearMonth, revenues[month]);
+        }
+        return revenues;
+    }
+
+    @Override
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingStatusChanged(LocationBookingStatusChangedEvent event) {
+        if (event.getPreviousStatus() == LocationBookingStatus.SUCCESSFUL || event.getNewStatus() == LocationBookingStatus.SUCCESSFUL)
+            closedMonthRevenues.remove(YearMonth.from(event.getBookingDate()));
+    }
+
     @Override
     public List<RecentPaymentResponse> getRecentPaymentHistories(PaymentStatus status, int top) {
         List<RecentPaymentResponse> result = new ArrayList<>();
@@ -435,7 +350,7 @@ public class PaymentHistoryServiceImpl extends BaseServiceImpl<PaymentHistory, P
         Sort sort = sortDir.equalsIgnoreCase(Sort.Direction.ASC.name()) ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
         Pageable pageable = PageRequest.of(pageNo, pageSize, sort);
 
-        Page<Object[]> paginationResponse = locationRepository.getLocationInfoAndNumberOfBookingInMonth(month, year, pageable);
+        Page<Object[]> paginationResponse = locationMonthlyRevenueRepository.findReportOfMonth(YearMonth.of(year, month).atDay(1), pageable);
 
         List<LocationRevenueReportResponse> reportList = new ArrayList<>();
 
@@ -469,5 +384,4 @@ public class PaymentHistoryServiceImpl extends BaseServiceImpl<PaymentHistory, P
                 .content(reportList)
                 .build();
     }
-
 }
@@ -2,6 +2,7 @@ package com.foodbookingplatform.services.impl;
 
 import com.foodbookingplatform.models.entities.*;
 import com.foodbookingplatform.models.enums.OfferStatus;
+import com.foodbookingplatform.models.enums.OfferTransition;
 import com.foodbookingplatform.models.exception.ResourceNotFoundException;
 import com.foodbookingplatform.models.exception.RestaurantBookingException;
 import com.foodbookingplatform.models.payload.dto.promotion.ApplyPromotionResponse;
@@ -11,31 +12,41 @@ import com.foodbookingplatform.models.payload.dto.promotion.PromotionResponse;
 import com.foodbookingplatform.repositories.LocationRepository;
 import com.foodbookingplatform.repositories.PromotionRepository;
 import com.foodbookingplatform.repositories.UserRepository;
+import com.foodbookingplatform.services.OfferActivationService;
 import com.foodbookingplatform.services.PromotionService;
 import com.foodbookingplatform.utils.DateTimeUtil;
 import com.foodbookingplatform.utils.GenericSpecification;
 import com.foodbookingplatform.utils.SecurityUtils;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.nio.file.AccessDeniedException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @Transactional
@@ -45,10 +56,43 @@ public class PromotionServiceImpl implements PromotionService {
     private final LocationRepository locationRepository;
     private final UserRepository userRepository;
     private final ModelMapper mapper;
+    private final OfferActivationService offerActivationService;
+
+    @Value("${promotion-cache.ttl-seconds}")
+    private long cacheTtlSeconds;
+
+    // ACTIVE promotions of a location compiled for getUsablePromotionListOfLocation, dropped whenever one of them may change
+    private final Map<Long, LocationPromotions> promotionsByLocation = new ConcurrentHashMap<>();
+    private long promotionsGeneration;
+
+    @PostConstruct
+    public void registerTransitionHandlers() {
+        offerActivationService.registerHandler(OfferTransition.PROMOTION_ACTIVATE, ids -> {
+            if (promotionRepository.updateStatusOfStarted(ids, OfferStatus.INACTIVE, OfferStatus.ACTIVE, DateTimeUtil.nowInVietnam()) > 0)
+                invalidateLocationPromotions(null);
+        });
+        offerActivationService.registerHandler(OfferTransition.PROMOTION_EXPIRE, ids -> {
+            if (promotionRepository.updateStatusOfEnded(ids, OfferStatus.ACTIVE, OfferStatus.EXPIRE, DateTimeUtil.nowInVietnam()) > 0)
+                invalidateLocationPromotions(null);
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleTransitions() {
+        List<Object[]> schedules = promotionRepository.findSchedulesByStatusIn(List.of(OfferStatus.INACTIVE, OfferStatus.ACTIVE));
+        for (Object[] row : schedules) {
+            if (row[1] == OfferStatus.INACTIVE)
+                offerActivationService.schedule(OfferTransition.PROMOTION_ACTIVATE, (Long) row[0], (LocalDateTime) row[2]);
+            offerActivationService.schedule(OfferTransition.PROMOTION_EXPIRE, (Long) row[0], (LocalDateTime) row[3]);
+        }
+    }
 
     @Override
     public PromotionResponse addPromotion(PromotionRequest promotionRequest) {
-        return mapToResponse(promotionRepository.save(validate(promotionRequest, promotionRequest.getId())));
+        Promotion promotion = promotionRepository.save(validate(promotionRequest, promotionRequest.getId()));
+        scheduleTransitions(promotion);
+        invalidateLocationPromotions(promotion.getLocation().getId());
+        return mapToResponse(promotion);
     }
 
     @Override
@@ -99,6 +143,8 @@ public class PromotionServiceImpl implements PromotionService {
         }
 
         Promotion updatedPromotion = validate(promotionRequest, promotionRequest.getId());
+        scheduleTransitions(updatedPromotion);
+        invalidateLocationPromotions(updatedPromotion.getLocation().getId());
         return mapToResponse(updatedPromotion);
     }
 
@@ -112,50 +158,17 @@ public class PromotionServiceImpl implements PromotionService {
         Promotion promotion = promotionRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Promotion", "id", id));
         promotion.setStatus(OfferStatus.DISABLED);
         promotionRepository.save(promotion);
+        invalidateLocationPromotions(promotion.getLocation().getId());
     }
 
+    // Answered from the compiled promotions of the location, the database is only read after a promotion change
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<ApplyPromotionResponse> getUsablePromotionListOfLocation(Long locationId, Float totalPrice, Integer numberOfPeople,
                                                                          LocalDate bookingDate, LocalTime bookingTime) {
-        List<Promotion> promotionResponses = promotionRepository.findAllByLocationIdAndStatus(locationId, OfferStatus.ACTIVE);
-        return promotionResponses.stream()
-                .map(promotion -> {
-                    ApplyPromotionResponse response = mapper.map(promotion, ApplyPromotionResponse.class);
-                    boolean isUsable = false;
-
-                    switch (promotion.getType()) {
-                        case "BILL" -> {
-                            // Nếu totalPrice không được truyền, bỏ qua phần kiểm tra
-                            if (totalPrice != null && promotion.getMinBill() <= totalPrice) {
-                                isUsable = true;
-                            }
-                        }
-                        case "PEOPLE" -> {
-                            // Nếu numberOfPeople không được truyền, bỏ qua phần kiểm tra
-                            if (numberOfPeople != null && promotion.getMinPeople() <= numberOfPeople) {
-                                isUsable = true;
-                            }
-                        }
-                        case "TIME" -> {
-                            // Nếu bookingDate hoặc bookingTime không được truyền, bỏ qua phần kiểm tra
-                            if (bookingDate != null && bookingTime != null &&
-                                    isDateTimeInRange(bookingDate, bookingTime, promotion.getStartDate(),
-                                            promotion.getStartHourTime(), promotion.getEndDate(),
-                                            promotion.getEndHourTime())) {
-                                isUsable = true;
-                            }
-                        }
-                        default -> throw new RestaurantBookingException(HttpStatus.BAD_REQUEST, "Unknown promotion type: " + promotion.getType());
-                    }
-
-                    // Set the usable status
-                    response.setUsable(isUsable);
-                    return response;
-                })
-                .toList();
+        return locationPromotions(locationId).evaluate(totalPrice, numberOfPeople, bookingDate, bookingTime);
     }
 
-
     @Override
     public CheckPromotionResponse applyPromotion(Long promotionId, Float totalPrice, Integer numberOfPeople,
                                 LocalDate bookingDate, LocalTime bookingTime) {
@@ -265,18 +278,151 @@ public class PromotionServiceImpl implements PromotionService {
         return mapper.map(promotion, PromotionResponse.class);
     }
 
-    @Scheduled(fixedRate = 10000)
-    public void handlePromotionActive() {
-        List<Promotion> promotionsActive = promotionRepository.findByStartDateBeforeAndStatus(DateTimeUtil.nowInVietnam(), OfferStatus.INACTIVE);
-        promotionsActive.forEach(promotion -> promotion.setStatus(OfferStatus.ACTIVE));
-        promotionRepository.saveAll(promotionsActive);
+    @FunctionalInterface
+    private interface UsableRule {
+        UsableRule NEVER = (totalPrice, numberOfPeople) -> false;
+
+        boolean test(Float totalPrice, Integer numberOfPeople);
+    }
+
+    private record LocationPromotions(ApplyPromotionResponse[] responses, UsableRule[] rules, TimeIndex timeIndex, long loadedAtMillis) {
+        List<ApplyPromotionResponse> evaluate(Float totalPrice, Integer numberOfPeople, LocalDate bookingDate, LocalTime bookingTime) {
+            boolean[] usable = new boolean[responses.length];
+            for (int i = 0; i < rules.length; i++) usable[i] = rules[i].test(totalPrice, numberOfPeople);
+            if (bookingDate != null && bookingTime != null) timeIndex.markUsable(bookingDate, bookingTime, usable);
+
+            // Callers get their own copies, the compiled responses are shared
+            List<ApplyPromotionResponse> result = new ArrayList<>(responses.length);
+            for (int i = 0; i < responses.length; i++) result.add(new ApplyPromotionResponse(responses[i], usable[i]));
+            return result;
+        }
+    }
+
+    // TIME promotions sorted by first day, so a booking date only scans those that have already started.
+    // A promotion applies from its start day through its end day, within [startHourTime, endHourTime] of each day.
+    private static final class TimeIndex {
+        private final long[] startDays;
+        private final long[] endDays;
+        private final long[] startNanos;
+        private final long[] endNanos;
+        private final int[] positions;
+
+        TimeIndex(List<Promotion> promotions, List<Integer> promotionPositions) {
+            Integer[] order = new Integer[promotions.size()];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            Arrays.sort(order, Comparator.comparing(i -> promotions.get(i).getStartDate()));
+
+            startDays = new long[order.length];
+            endDays = new long[order.length];
+            startNanos = new long[order.length];
+            endNanos = new long[order.length];
+            positions = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                Promotion promotion = promotions.get(order[i]);
+                startDays[i] = promotion.getStartDate().toLocalDate().toEpochDay();
+                endDays[i] = promotion.getEndDate().toLocalDate().toEpochDay();
+                startNanos[i] = promotion.getStartHourTime().toNanoOfDay();
+                endNanos[i] = promotion.getEndHourTime().toNanoOfDay();
+                positions[i] = promotionPositions.get(order[i]);
+            }
+        }
+
+        void markUsable(LocalDate bookingDate, LocalTime bookingTime, boolean[] usable) {
+            long day = bookingDate.toEpochDay();
+            long nanos = bookingTime.toNanoOfDay();
+            int started = upperBound(day);
+            for (int i = 0; i < started; i++) {
+                if (day <= endDays[i] && startNanos[i] <= nanos && nanos <= endNanos[i]) usable[positions[i]] = true;
+            }
+        }
+
+        // Number of promotions whose first day is on or before the given day
+        private int upperBound(long day) {
+            int low = 0;
+            int high = startDays.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (startDays[middle] <= day) low = middle + 1;
+                else high = middle;
+            }
+            return low;
+        }
+    }
+
+    private LocationPromotions locationPromotions(Long locationId) {
+        LocationPromotions cached = promotionsByLocation.get(locationId);
+        // Invalidation only reaches this instance, changes made through another one show up once the entry is too old
+        if (cached != null && System.currentTimeMillis() - cached.loadedAtMillis() < cacheTtlSeconds * 1000) return cached;
+
+        long generation;
+        synchronized (promotionsByLocation) {
+            generation = promotionsGeneration;
+        }
+        LocationPromotions compiled = compile(promotionRepository.findAllByLocationIdAndStatus(locationId, OfferStatus.ACTIVE));
+        // A change committed while this was loading may not be in it, so it is used once but not kept
+        synchronized (promotionsByLocation) {
+            if (generation == promotionsGeneration) promotionsByLocation.put(locationId, compiled);
+        }
+        return compiled;
+    }
+
+    // Dropped after commit so the next reload reads the new state; null drops every location
+    private void invalidateLocationPromotions(Long locationId) {
+        Runnable invalidate = () -> {
+            synchronized (promotionsByLocation) {
+                promotionsGeneration++;
+                if (locationId == null) promotionsByLocation.clear();
+                else promotionsByLocation.remove(locationId);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate.run();
+                }
+            });
+        } else {
+            invalidate.run();
+        }
+    }
+
+    // BILL and PEOPLE become a threshold check, TIME promotions go into the date index
+    private LocationPromotions compile(List<Promotion> promotions) {
+        int count = promotions.size();
+        ApplyPromotionResponse[] responses = new ApplyPromotionResponse[count];
+        UsableRule[] rules = new UsableRule[count];
+        List<Promotion> timePromotions = new ArrayList<>();
+        List<Integer> timePositions = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            Promotion promotion = promotions.get(i);
+            responses[i] = mapper.map(promotion, ApplyPromotionResponse.class);
+            switch (promotion.getType()) {
+                case "BILL" -> {
+                    Double minBill = promotion.getMinBill();
+                    rules[i] = minBill == null ? UsableRule.NEVER : (totalPrice, numberOfPeople) -> totalPrice != null && minBill <= totalPrice;
+                }
+                case "PEOPLE" -> {
+                    Integer minPeople = promotion.getMinPeople();
+                    rules[i] = minPeople == null ? UsableRule.NEVER : (totalPrice, numberOfPeople) -> numberOfPeople != null && minPeople <= numberOfPeople;
+                }
+                case "TIME" -> {
+                    rules[i] = UsableRule.NEVER;
+                    if (promotion.getStartHourTime() != null && promotion.getEndHourTime() != null) {
+                        timePromotions.add(promotion);
+                        timePositions.add(i);
+                    }
+                }
+                default -> throw new RestaurantBookingException(HttpStatus.BAD_REQUEST, "Unknown promotion type: " + promotion.getType());
+            }
+        }
+        return new LocationPromotions(responses, rules, new TimeIndex(timePromotions, timePositions), System.currentTimeMillis());
     }
 
-    @Scheduled(fixedRate = 10000)
-    public void handlePromotionExpire() {
-        List<Promotion> promotionsExpire = promotionRepository.findByEndDateBeforeAndStatus(DateTimeUtil.nowInVietnam(), OfferStatus.ACTIVE);
-        promotionsExpire.forEach(promotion -> promotion.setStatus(OfferStatus.EXPIRE));
-        promotionRepository.saveAll(promotionsExpire);
+    private void scheduleTransitions(Promotion promotion) {
+        offerActivationService.schedule(OfferTransition.PROMOTION_ACTIVATE, promotion.getId(), promotion.getStartDate());
+        offerActivationService.schedule(OfferTransition.PROMOTION_EXPIRE, promotion.getId(), promotion.getEndDate());
     }
 
     private Specification<Promotion> specification(Map<String, Object> searchParams){
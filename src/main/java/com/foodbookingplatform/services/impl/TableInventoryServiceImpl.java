@@ -0,0 +1,232 @@
+package com.foodbookingplatform.services.impl;
+
+import com.foodbookingplatform.models.entities.DiningTable;
+import com.foodbookingplatform.models.entities.Location;
+import com.foodbookingplatform.models.entities.LocationBooking;
+import com.foodbookingplatform.models.enums.EntityStatus;
+import com.foodbookingplatform.models.enums.LocationBookingStatus;
+import com.foodbookingplatform.models.events.LocationBookingStatusChangedEvent;
+import com.foodbookingplatform.models.exception.ResourceNotFoundException;
+import com.foodbookingplatform.models.exception.RestaurantBookingException;
+import com.foodbookingplatform.models.payload.dto.diningtable.DiningTableRequest;
+import com.foodbookingplatform.models.payload.dto.diningtable.DiningTableResponse;
+import com.foodbookingplatform.repositories.DiningTableRepository;
+import com.foodbookingplatform.repositories.LocationBookingRepository;
+import com.foodbookingplatform.repositories.LocationRepository;
+import com.foodbookingplatform.repositories.UserRepository;
+import com.foodbookingplatform.services.TableInventoryService;
+import com.foodbookingplatform.utils.DateTimeUtil;
+import com.foodbookingplatform.utils.SecurityUtils;
+import com.foodbookingplatform.utils.TableAllocator;
+
+import lombok.RequiredArgsConstructor;
+
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.file.AccessDeniedException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+public class TableInventoryServiceImpl implements TableInventoryService {
+
+    // Statuses that hold seats at the restaurant
+    private static final List<LocationBookingStatus> SEATED_STATUSES = List.of(
+            LocationBookingStatus.PENDING, LocationBookingStatus.CONFIRMED, LocationBookingStatus.SUCCESSFUL);
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    @Value("${booking-slot.slot-minutes}")
+    private int slotMinutes;
+    @Value("${booking-slot.dining-minutes}")
+    private int diningMinutes;
+
+    private final DiningTableRepository diningTableRepository;
+    private final LocationRepository locationRepository;
+    private final LocationBookingRepository locationBookingRepository;
+    private final UserRepository userRepository;
+    private final ModelMapper mapper;
+
+    private final Map<TableDayKey, DayTables> dayTablesCache = new ConcurrentHashMap<>();
+
+    @Override
+    public List<DiningTableResponse> getTablesOfLocation(Long locationId) {
+        return diningTableRepository.findAllByLocation_IdOrderBySeatsAsc(locationId).stream()
+                .map(table -> mapper.map(table, DiningTableResponse.class))
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public DiningTableResponse addTable(DiningTableRequest request) throws AccessDeniedException {
+        Location location = getAuthorizedLocation(request.getLocationId());
+        DiningTable table = new DiningTable();
+        table.setName(request.getName());
+        table.setSeats(request.getSeats());
+        table.setCombineGroup(normalizeGroup(request.getCombineGroup()));
+        table.setStatus(request.getStatus() != null ? request.getStatus() : EntityStatus.ACTIVE);
+        table.setLocation(location);
+        DiningTable savedTable = diningTableRepository.save(table);
+        evictLocation(location.getId());
+        return mapper.map(savedTable, DiningTableResponse.class);
+    }
+
+    @Override
+    @Transactional
+    public DiningTableResponse updateTable(DiningTableRequest request) throws AccessDeniedException {
+        DiningTable table = diningTableRepository.findById(request.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Table", "id", request.getId()));
+        getAuthorizedLocation(table.getLocation().getId());
+        table.setName(request.getName());
+        table.setSeats(request.getSeats());
+        table.setCombineGroup(normalizeGroup(request.getCombineGroup()));
+        if (request.getStatus() != null) table.setStatus(request.getStatus());
+        DiningTable savedTable = diningTableRepository.save(table);
+        evictLocation(table.getLocation().getId());
+        return mapper.map(savedTable, DiningTableResponse.class);
+    }
+
+    // Past bookings still reference the table, so it is only deactivated
+    @Override
+    @Transactional
+    public void deleteTable(Long id) throws AccessDeniedException {
+        DiningTable table = diningTableRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Table", "id", id));
+        getAuthorizedLocation(table.getLocation().getId());
+        table.setStatus(EntityStatus.INACTIVE);
+        diningTableRepository.save(table);
+        evictLocation(table.getLocation().getId());
+    }
+
+    // Must run inside the transaction that saved the booking: the tables are released again if it rolls back
+    @Override
+    public Set<DiningTable> allocateTables(LocationBooking booking) {
+        DayTables dayTables = dayTablesCache.computeIfAbsent(
+                new TableDayKey(booking.getLocation().getId(), booking.getBookingDate()), this::buildDayTables);
+        // Locations without a table inventory are admitted on seat count only
+        if (dayTables.allocator().tableCount() == 0) return new HashSet<>();
+
+        int[] range = coveredSlots(booking.getBookingTime());
+        int[] tables = dayTables.allocator().allocate(range[0], range[1], booking.getNumberOfGuest());
+        if (tables == null)
+            throw new RestaurantBookingException(HttpStatus.BAD_REQUEST, "No table is available for your party at this time, please book another time!");
+
+        Long bookingId = booking.getId();
+        dayTables.allocations().put(bookingId, new TableAllocation(range[0], range[1], tables));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) release(dayTables, bookingId);
+                }
+            });
+        }
+
+        Set<DiningTable> diningTables = new HashSet<>();
+        for (int table : tables) diningTables.add(diningTableRepository.getReferenceById(dayTables.tableIds()[table]));
+        return diningTables;
+    }
+
+    @Override
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingStatusChanged(LocationBookingStatusChangedEvent event) {
+        if (SEATED_STATUSES.contains(event.getNewStatus())) return;
+        DayTables dayTables = dayTablesCache.get(new TableDayKey(event.getLocationId(), event.getBookingDate()));
+        if (dayTables != null) release(dayTables, event.getBookingId());
+    }
+
+    @Scheduled(cron = "0 5 0 * * ?")
+    public void evictPastDays() {
+        LocalDate today = DateTimeUtil.nowInVietnam().toLocalDate();
+        dayTablesCache.keySet().removeIf(key -> key.date().isBefore(today));
+    }
+
+    // Callers hold the location lock that bookings take before allocating, so no booking sits between its
+    // allocation and its commit, and the next one rebuilds the bitsets from committed rows once the lock is released
+    private void evictLocation(Long locationId) {
+        dayTablesCache.keySet().removeIf(key -> key.locationId().equals(locationId));
+    }
+
+    private void release(DayTables dayTables, Long bookingId) {
+        TableAllocation allocation = dayTables.allocations().remove(bookingId);
+        if (allocation != null)
+            dayTables.allocator().release(allocation.tables(), allocation.fromSlot(), allocation.toSlot());
+    }
+
+    private DayTables buildDayTables(TableDayKey key) {
+        List<DiningTable> tables = diningTableRepository.findAllByLocation_IdAndStatusOrderBySeatsAsc(key.locationId(), EntityStatus.ACTIVE);
+        long[] tableIds = new long[tables.size()];
+        int[] seats = new int[tables.size()];
+        int[] groups = new int[tables.size()];
+        Map<Long, Integer> tableIndexes = new HashMap<>();
+        Map<String, Integer> groupIndexes = new HashMap<>();
+        for (int i = 0; i < tables.size(); i++) {
+            DiningTable table = tables.get(i);
+            tableIds[i] = table.getId();
+            seats[i] = table.getSeats();
+            groups[i] = table.getCombineGroup() == null ? -1
+                    : groupIndexes.computeIfAbsent(table.getCombineGroup(), group -> groupIndexes.size());
+            tableIndexes.put(table.getId(), i);
+        }
+
+        DayTables dayTables = new DayTables(tableIds,
+                new TableAllocator(seats, groups, (MINUTES_PER_DAY + slotMinutes - 1) / slotMinutes), new ConcurrentHashMap<>());
+        if (tables.isEmpty()) return dayTables;
+
+        // Rows are (bookingId, bookingTime, tableId); tables deactivated since then are no longer allocatable anyway
+        Map<Long, List<Integer>> bookedTables = new HashMap<>();
+        Map<Long, LocalTime> bookingTimes = new HashMap<>();
+        for (Object[] row : locationBookingRepository.findTableUsage(key.locationId(), key.date(), SEATED_STATUSES)) {
+            Integer index = tableIndexes.get((Long) row[2]);
+            if (index == null) continue;
+            bookedTables.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(index);
+            bookingTimes.put((Long) row[0], (LocalTime) row[1]);
+        }
+        bookedTables.forEach((bookingId, indexes) -> {
+            int[] range = coveredSlots(bookingTimes.get(bookingId));
+            int[] bookingTables = indexes.stream().mapToInt(Integer::intValue).toArray();
+            dayTables.allocator().occupy(bookingTables, range[0], range[1]);
+            dayTables.allocations().put(bookingId, new TableAllocation(range[0], range[1], bookingTables));
+        });
+        return dayTables;
+    }
+
+    // [from, to) slots of the day occupied by a booking starting at time
+    private int[] coveredSlots(LocalTime time) {
+        int slotCount = (MINUTES_PER_DAY + slotMinutes - 1) / slotMinutes;
+        int minuteOfDay = time.getHour() * 60 + time.getMinute();
+        int from = minuteOfDay / slotMinutes;
+        int to = Math.min((minuteOfDay + diningMinutes + slotMinutes - 1) / slotMinutes, slotCount);
+        return new int[]{from, Math.max(to, from + 1)};
+    }
+
+    private Location getAuthorizedLocation(Long locationId) throws AccessDeniedException {
+        if (!SecurityUtils.isAuthorizeLocation(locationId, userRepository))
+            throw new RestaurantBookingException(HttpStatus.NOT_FOUND, "You dont have this location with id: " + locationId);
+        return locationRepository.findByIdForUpdate(locationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Location", "id", locationId));
+    }
+
+    private String normalizeGroup(String combineGroup) {
+        return combineGroup == null || combineGroup.isBlank() ? null : combineGroup.trim();
+    }
+
+    private record TableDayKey(Long locationId, LocalDate date) {
+    }
+
+    private record TableAllocation(int fromSlot, int toSlot, int[] tables) {
+    }
+
+    private record DayTables(long[] tableIds, TableAllocator allocator, Map<Long, TableAllocation> allocations) {
+    }
+}
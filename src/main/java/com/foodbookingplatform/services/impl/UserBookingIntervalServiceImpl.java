@@ -0,0 +1,150 @@
+package com.foodbookingplatform.services.impl;
+
+import com.foodbookingplatform.models.entities.LocationBooking;
+import com.foodbookingplatform.models.enums.LocationBookingStatus;
+import com.foodbookingplatform.models.events.LocationBookingStatusChangedEvent;
+import com.foodbookingplatform.models.exception.RestaurantBookingException;
+import com.foodbookingplatform.repositories.LocationBookingRepository;
+import com.foodbookingplatform.services.UserBookingIntervalService;
+import com.foodbookingplatform.utils.DateTimeUtil;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+public class UserBookingIntervalServiceImpl implements UserBookingIntervalService {
+
+    // Bookings that still block the user's evening
+    private static final List<LocationBookingStatus> ACTIVE_STATUSES = List.of(
+            LocationBookingStatus.PENDING, LocationBookingStatus.CONFIRMED);
+    private static final long MINUTES_PER_DAY = 24 * 60;
+
+    @Value("${booking-slot.dining-minutes}")
+    private long diningMinutes;
+
+    private final LocationBookingRepository locationBookingRepository;
+
+    private final Map<Long, UserIntervals> intervalsByUser = new ConcurrentHashMap<>();
+
+    // Must run inside the transaction that saved the booking: the interval is dropped again if it rolls back
+    @Override
+    public void reserve(LocationBooking booking) {
+        Long userId = booking.getUser().getId();
+        Long bookingId = booking.getId();
+        UserIntervals intervals = intervalsByUser.computeIfAbsent(userId, this::loadUserIntervals);
+        long start = startMinute(booking.getBookingDate(), booking.getBookingTime());
+
+        // Registered before the check: a fresh load already sees the saved row, which must not outlive a rollback
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        synchronized (intervals) {
+                            intervals.remove(bookingId);
+                        }
+                    }
+                }
+            });
+        }
+
+        synchronized (intervals) {
+            if (intervals.overlaps(start, diningMinutes, bookingId))
+                throw new RestaurantBookingException(HttpStatus.BAD_REQUEST, "You already have a booking around this time, please book another time!");
+            intervals.add(bookingId, start);
+        }
+    }
+
+    @Override
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingStatusChanged(LocationBookingStatusChangedEvent event) {
+        UserIntervals intervals = intervalsByUser.get(event.getUserId());
+        if (intervals == null) return;
+        synchronized (intervals) {
+            if (ACTIVE_STATUSES.contains(event.getNewStatus()))
+                intervals.add(event.getBookingId(), startMinute(event.getBookingDate(), event.getBookingTime()));
+            else
+                intervals.remove(event.getBookingId());
+        }
+    }
+
+    // Past bookings can no longer overlap a new one; users left without upcoming bookings are reloaded on demand
+    @Scheduled(cron = "0 10 0 * * ?")
+    public void evictPastIntervals() {
+        long todayStart = startMinute(DateTimeUtil.nowInVietnam().toLocalDate(), LocalTime.MIDNIGHT);
+        intervalsByUser.entrySet().removeIf(entry -> {
+            synchronized (entry.getValue()) {
+                entry.getValue().removeStartingBefore(todayStart - diningMinutes);
+                return entry.getValue().isEmpty();
+            }
+        });
+    }
+
+    private UserIntervals loadUserIntervals(Long userId) {
+        UserIntervals intervals = new UserIntervals();
+        LocalDate today = DateTimeUtil.nowInVietnam().toLocalDate();
+        // From yesterday so a late booking running past midnight still blocks the early hours
+        for (Object[] row : locationBookingRepository.findUpcomingBookingTimesOfUser(userId, today.minusDays(1), ACTIVE_STATUSES)) {
+            intervals.add((Long) row[0], startMinute((LocalDate) row[1], (LocalTime) row[2]));
+        }
+        return intervals;
+    }
+
+    private static long startMinute(LocalDate date, LocalTime time) {
+        return date.toEpochDay() * MINUTES_PER_DAY + time.getHour() * 60L + time.getMinute();
+    }
+
+    /**
+     * Start minutes of a user's active bookings. Every booking lasts the same dining duration, so a new booking
+     * starting at s overlaps an existing one iff some start lies in (s - duration, s + duration): one ceiling lookup.
+     */
+    static final class UserIntervals {
+        private final TreeMap<Long, Integer> startCounts = new TreeMap<>();
+        private final Map<Long, Long> startByBooking = new HashMap<>();
+
+        // The booking being reserved is ignored, it is already in the table when the user's intervals are loaded
+        boolean overlaps(long start, long duration, Long bookingId) {
+            Long ownStart = startByBooking.get(bookingId);
+            Long next = startCounts.ceilingKey(start - duration + 1);
+            while (next != null && next < start + duration) {
+                if (!next.equals(ownStart) || startCounts.get(next) > 1) return true;
+                next = startCounts.higherKey(next);
+            }
+            return false;
+        }
+
+        void add(Long bookingId, long start) {
+            if (startByBooking.putIfAbsent(bookingId, start) == null) startCounts.merge(start, 1, Integer::sum);
+        }
+
+        void remove(Long bookingId) {
+            Long start = startByBooking.remove(bookingId);
+            if (start != null) startCounts.computeIfPresent(start, (key, count) -> count == 1 ? null : count - 1);
+        }
+
+        void removeStartingBefore(long minute) {
+            startByBooking.values().removeIf(start -> start < minute);
+            startCounts.headMap(minute).clear();
+        }
+
+        boolean isEmpty() {
+            return startByBooking.isEmpty();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.foodbookingplatform.services.impl;
 
 import com.foodbookingplatform.models.entities.*;
 import com.foodbookingplatform.models.enums.OfferStatus;
+import com.foodbookingplatform.models.enums.OfferTransition;
 import com.foodbookingplatform.models.exception.RestaurantBookingException;
 import com.foodbookingplatform.models.exception.ResourceNotFoundException;
 import com.foodbookingplatform.models.payload.dto.uservoucher.ApplyUserVoucherResponse;
@@ -12,18 +13,21 @@ import com.foodbookingplatform.models.payload.dto.voucher.VoucherResponse;
 import com.foodbookingplatform.repositories.UserRepository;
 import com.foodbookingplatform.repositories.UserVoucherRepository;
 import com.foodbookingplatform.repositories.VoucherRepository;
+import com.foodbookingplatform.services.OfferActivationService;
 import com.foodbookingplatform.services.VoucherService;
 import com.foodbookingplatform.utils.DateTimeUtil;
 import com.foodbookingplatform.utils.GenericSpecification;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -43,6 +47,25 @@ public class VoucherServiceImpl implements VoucherService {
     private final UserVoucherRepository userVoucherRepository;
     private final UserRepository userRepository;
     private final ModelMapper mapper;
+    private final OfferActivationService offerActivationService;
+
+    @PostConstruct
+    public void registerTransitionHandlers() {
+        offerActivationService.registerHandler(OfferTransition.VOUCHER_ACTIVATE, ids ->
+                voucherRepository.updateStatusOfStarted(ids, OfferStatus.INACTIVE, OfferStatus.ACTIVE, DateTimeUtil.nowInVietnam()));
+        offerActivationService.registerHandler(OfferTransition.VOUCHER_EXPIRE, ids ->
+                voucherRepository.updateStatusOfEnded(ids, OfferStatus.ACTIVE, OfferStatus.EXPIRE, DateTimeUtil.nowInVietnam()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleTransitions() {
+        List<Object[]> schedules = voucherRepository.findSchedulesByStatusIn(List.of(OfferStatus.INACTIVE, OfferStatus.ACTIVE));
+        for (Object[] row : schedules) {
+            if (row[1] == OfferStatus.INACTIVE)
+                offerActivationService.schedule(OfferTransition.VOUCHER_ACTIVATE, (Long) row[0], (LocalDateTime) row[2]);
+            offerActivationService.schedule(OfferTransition.VOUCHER_EXPIRE, (Long) row[0], (LocalDateTime) row[3]);
+        }
+    }
 
     @Override
     public VoucherResponse createVoucher(VoucherRequest request) {
@@ -57,7 +80,9 @@ public class VoucherServiceImpl implements VoucherService {
             throw new RestaurantBookingException(HttpStatus.BAD_REQUEST, "Max quantity use must be lower than total quantity");
 
         newVoucher.setStatus(OfferStatus.INACTIVE);
-        return mapper.map(voucherRepository.save(newVoucher), VoucherResponse.class);
+        Voucher savedVoucher = voucherRepository.save(newVoucher);
+        scheduleTransitions(savedVoucher);
+        return mapper.map(savedVoucher, VoucherResponse.class);
     }
 
     @Override
@@ -69,7 +94,9 @@ public class VoucherServiceImpl implements VoucherService {
         if(!existed.getStatus().equals(OfferStatus.INACTIVE))
             throw new RestaurantBookingException(HttpStatus.BAD_REQUEST, "Only INACTIVE vouchers are able to update");
         mapper.map(request, existed);
-        return mapper.map(voucherRepository.save(existed), VoucherResponse.class);
+        Voucher savedVoucher = voucherRepository.save(existed);
+        scheduleTransitions(savedVoucher);
+        return mapper.map(savedVoucher, VoucherResponse.class);
     }
 
     @Override
@@ -191,18 +218,9 @@ public class VoucherServiceImpl implements VoucherService {
                 .toList();
     }
 
-    @Scheduled(fixedRate = 10000)
-    public void handleVoucherActive() {
-        List<Voucher> voucherActive = voucherRepository.findVoucherByStartDateBeforeAndStatus(DateTimeUtil.nowInVietnam(), OfferStatus.INACTIVE);
-        voucherActive.forEach(v -> v.setStatus(OfferStatus.ACTIVE));
-        voucherRepository.saveAll(voucherActive);
-    }
-
-    @Scheduled(fixedRate = 10000)
-    public void handleVoucherExpire() {
-        List<Voucher> voucherExpire = voucherRepository.findVoucherByEndDateBeforeAndStatus(DateTimeUtil.nowInVietnam(), OfferStatus.ACTIVE);
-        voucherExpire.forEach(v -> v.setStatus(OfferStatus.EXPIRE));
-        voucherRepository.saveAll(voucherExpire);
+    private void scheduleTransitions(Voucher voucher) {
+        offerActivationService.schedule(OfferTransition.VOUCHER_ACTIVATE, voucher.getId(), voucher.getStartDate());
+        offerActivationService.schedule(OfferTransition.VOUCHER_EXPIRE, voucher.getId(), voucher.getEndDate());
     }
 
     private Voucher checkVoucherValid(Float totalPrice, UserVoucher userVoucher) {
@@ -0,0 +1,314 @@
+package com.foodbookingplatform.services.impl;
+
+import com.foodbookingplatform.models.entities.Location;
+import com.foodbookingplatform.models.entities.User;
+import com.foodbookingplatform.models.entities.WorkingHour;
+import com.foodbookingplatform.models.enums.DayInWeek;
+import com.foodbookingplatform.models.enums.EntityStatus;
+import com.foodbookingplatform.models.enums.LocationBookingStatus;
+import com.foodbookingplatform.models.events.LocationBookingStatusChangedEvent;
+import com.foodbookingplatform.models.exception.ResourceNotFoundException;
+import com.foodbookingplatform.models.exception.RestaurantBookingException;
+import com.foodbookingplatform.models.payload.dto.locationbooking.LocationBookingRequest;
+import com.foodbookingplatform.models.payload.dto.locationbooking.LocationBookingResponse;
+import com.foodbookingplatform.models.payload.dto.waitlist.WaitlistRequest;
+import com.foodbookingplatform.models.payload.dto.waitlist.WaitlistResponse;
+import com.foodbookingplatform.repositories.LocationRepository;
+import com.foodbookingplatform.repositories.UserRepository;
+import com.foodbookingplatform.repositories.WorkingHourRepository;
+import com.foodbookingplatform.services.EmailService;
+import com.foodbookingplatform.services.LocationBookingService;
+import com.foodbookingplatform.services.LocationSlotService;
+import com.foodbookingplatform.services.WaitlistService;
+import com.foodbookingplatform.utils.DateTimeUtil;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WaitlistServiceImpl implements WaitlistService {
+
+    // Statuses that hold seats at the restaurant
+    private static final Set<LocationBookingStatus> SEATED_STATUSES = EnumSet.of(
+            LocationBookingStatus.PENDING, LocationBookingStatus.CONFIRMED, LocationBookingStatus.SUCCESSFUL);
+
+    private final UserRepository userRepository;
+    private final LocationRepository locationRepository;
+    private final WorkingHourRepository workingHourRepository;
+    private final LocationSlotService locationSlotService;
+    private final EmailService emailService;
+    private final LocationBookingService locationBookingService;
+
+    // One FIFO queue per (location, date, time); entriesById only serves lookups by id and by user
+    private final Map<WaitlistKey, WaitlistQueue> waitlists = new ConcurrentHashMap<>();
+    private final Map<Long, WaitlistEntry> entriesById = new ConcurrentHashMap<>();
+    private final AtomicLong waitlistSequence = new AtomicLong();
+
+    @Override
+    public WaitlistResponse joinWaitlist(WaitlistRequest request) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = userRepository.findByUserName(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+
+        Location location = locationRepository.findById(request.getLocationId())
+                .orElseThrow(() -> new RestaurantBookingException(HttpStatus.BAD_REQUEST, "No restaurant available!"));
+        if (!location.getStatus().equals(EntityStatus.ACTIVE))
+            throw new RestaurantBookingException(HttpStatus.BAD_REQUEST, "Restaurant is not available for booking!");
+
+        WorkingHour workingHour = workingHourRepository.findByLocation_IdAndDay(location.getId(), DayInWeek.valueOf(request.getBookingDate().getDayOfWeek().name()));
+        if (workingHour == null || request.getBookingTime().isBefore(workingHour.getStartTime()) || request.getBookingTime().isAfter(workingHour.getEndTime()))
+            throw new RestaurantBookingException(HttpStatus.BAD_REQUEST, "Please book another time!");
+
+        LocalDateTime now = DateTimeUtil.nowInVietnam();
+        if (!LocalDateTime.of(request.getBookingDate(), request.getBookingTime()).isAfter(now))
+            throw new RestaurantBookingException(HttpStatus.BAD_REQUEST, "You cannot book in the past!");
+
+        int numberOfGuest = request.getNumberOfAdult() + request.getNumberOfChildren();
+        if (locationSlotService.getRemainingSeats(location.getId(), request.getBookingDate(), request.getBookingTime()) >= numberOfGuest)
+            throw new RestaurantBookingException(HttpStatus.BAD_REQUEST, "There are still seats available at this time, please book directly!");
+
+        WaitlistKey key = new WaitlistKey(location.getId(), request.getBookingDate(), request.getBookingTime());
+        WaitlistQueue queue = waitlists.computeIfAbsent(key, k -> new WaitlistQueue());
+        for (WaitlistEntry waiting : queue.entries) {
+            if (waiting.userId.equals(user.getId()) && waiting.state.get() == WaitlistEntry.WAITING)
+                throw new RestaurantBookingException(HttpStatus.BAD_REQUEST, "You are already on the waitlist for this time!");
+        }
+
+        WaitlistEntry entry = new WaitlistEntry(waitlistSequence.incrementAndGet(), key, user.getId(), user.getEmail(),
+                user.getFullName(), location.getName(), request, numberOfGuest, now);
+        entriesById.put(entry.id, entry);
+        queue.entries.add(entry);
+        return mapWaitlistResponse(entry);
+    }
+
+    @Override
+    public void leaveWaitlist(Long waitlistId) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = userRepository.findByUserName(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+
+        WaitlistEntry entry = entriesById.get(waitlistId);
+        if (entry == null || !entry.userId.equals(user.getId()))
+            throw new ResourceNotFoundException("Waitlist", "id", waitlistId);
+        // Losing the race means the entry is being turned into a booking right now
+        if (!entry.state.compareAndSet(WaitlistEntry.WAITING, WaitlistEntry.DONE))
+            throw new RestaurantBookingException(HttpStatus.BAD_REQUEST, "A seat has just been booked for you from the waitlist!");
+        removeEntry(entry);
+    }
+
+    @Override
+    public List<WaitlistResponse> getWaitlistOfUser() {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = userRepository.findByUserName(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+
+        List<WaitlistResponse> responses = new ArrayList<>();
+        for (WaitlistEntry entry : entriesById.values()) {
+            if (entry.userId.equals(user.getId()) && entry.state.get() == WaitlistEntry.WAITING)
+                responses.add(mapWaitlistResponse(entry));
+        }
+        return responses;
+    }
+
+    // Seats were released by a cancellation or an expiry, hand them to the waiters of that day in FIFO order
+    @Override
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingStatusChanged(LocationBookingStatusChangedEvent event) {
+        if (event.getPreviousStatus() == null || !SEATED_STATUSES.contains(event.getPreviousStatus())
+                || SEATED_STATUSES.contains(event.getNewStatus()))
+            return;
+
+        waitlists.forEach((key, queue) -> {
+            if (key.locationId().equals(event.getLocationId()) && key.date().equals(event.getBookingDate()))
+                promote(key, queue);
+        });
+    }
+
+    @Scheduled(cron = "0 5 0 * * ?")
+    public void evictPastDays() {
+        LocalDate today = DateTimeUtil.nowInVietnam().toLocalDate();
+        waitlists.entrySet().removeIf(waitlist -> {
+            if (!waitlist.getKey().date().isBefore(today)) return false;
+            waitlist.getValue().entries.forEach(entry -> entriesById.remove(entry.id));
+            return true;
+        });
+    }
+
+    // Only one thread drains a queue at a time; a release signalled meanwhile makes the drainer run once more
+    private void promote(WaitlistKey key, WaitlistQueue queue) {
+        if (queue.drainRequests.getAndIncrement() > 0) return;
+        do {
+            drain(key, queue);
+        } while (queue.drainRequests.decrementAndGet() > 0);
+    }
+
+    private void drain(WaitlistKey key, WaitlistQueue queue) {
+        if (!LocalDateTime.of(key.date(), key.time()).isAfter(DateTimeUtil.nowInVietnam())) return;
+        // Async listeners are not ordered after the slot cache eviction of the releasing commit
+        locationSlotService.evictDay(key.locationId(), key.date());
+
+        for (WaitlistEntry entry : queue.entries) {
+            int remainingSeats = locationSlotService.getRemainingSeats(key.locationId(), key.date(), key.time());
+            if (remainingSeats <= 0) return;
+            if (entry.numberOfGuest > remainingSeats) continue;
+            if (!entry.state.compareAndSet(WaitlistEntry.WAITING, WaitlistEntry.PROMOTING)) continue;
+
+            try {
+                LocationBookingResponse booking = locationBookingService.createWaitlistBooking(entry.userId, mapBookingRequest(entry));
+                entry.state.set(WaitlistEntry.DONE);
+                removeEntry(entry);
+                sendMailWaitlistPromoted(entry, booking);
+            } catch (RestaurantBookingException e) {
+                // The slot can no longer be booked for this waiter (location closed, seats taken meanwhile...)
+                log.warn("Could not promote waitlist entry {}: {}", entry.id, e.getMessage());
+                entry.state.set(WaitlistEntry.WAITING);
+            } catch (RuntimeException e) {
+                log.error("Failed to promote waitlist entry {}", entry.id, e);
+                entry.state.set(WaitlistEntry.WAITING);
+            }
+        }
+    }
+
+    private void removeEntry(WaitlistEntry entry) {
+        entriesById.remove(entry.id);
+        WaitlistQueue queue = waitlists.get(entry.key);
+        if (queue != null) queue.entries.remove(entry);
+    }
+
+    private LocationBookingRequest mapBookingRequest(WaitlistEntry entry) {
+        LocationBookingRequest request = new LocationBookingRequest();
+        request.setName(entry.request.getName());
+        request.setAddress(entry.request.getAddress());
+        request.setPhone(entry.request.getPhone());
+        request.setBookingDate(entry.key.date());
+        request.setBookingTime(entry.key.time());
+        request.setNumberOfAdult(entry.request.getNumberOfAdult());
+        request.setNumberOfChildren(entry.request.getNumberOfChildren());
+        request.setLocationId(entry.key.locationId());
+        request.setFoodBookings(List.of());
+        return request;
+    }
+
+    private WaitlistResponse mapWaitlistResponse(WaitlistEntry entry) {
+        int position = 1;
+        WaitlistQueue queue = waitlists.get(entry.key);
+        if (queue != null) {
+            for (WaitlistEntry waiting : queue.entries) {
+                if (waiting == entry) break;
+                if (waiting.state.get() == WaitlistEntry.WAITING) position++;
+            }
+        }
+        return WaitlistResponse.builder()
+                .id(entry.id)
+                .locationId(entry.key.locationId())
+                .bookingDate(entry.key.date())
+                .bookingTime(entry.key.time())
+                .numberOfGuest(entry.numberOfGuest)
+                .position(position)
+                .joinedAt(entry.joinedAt)
+                .build();
+    }
+
+    private void sendMailWaitlistPromoted(WaitlistEntry entry, LocationBookingResponse booking) {
+        String subject = "[SkedEat Thông Báo Đặt Chỗ]: Bạn Đã Có Chỗ Từ Danh Sách Chờ!";
+        String content = "<html>" +
+                "<head>" +
+                "<style>" +
+                "table { width: 100%; border-collapse: collapse; }" +
+                "th, td { padding: 10px; border: 1px solid #ddd; text-align: left; }" +
+                "th { background-color: #f2f2f2; }" +
+                "body { font-family: Arial, sans-serif; }" +
+                "</style>" +
+                "</head>" +
+                "<body>" +
+                String.format(
+                        "Kính gửi %s,<br><br>Đã có chỗ trống tại nhà hàng <b>%s</b> và chúng tôi đã tự động đặt chỗ cho bạn từ danh sách chờ.<br><br>" +
+                                "<strong>Chi tiết Đặt Chỗ:</strong><br>" +
+                                "<table>" +
+                                "<tr style='background-color: #f2f2f2;'><th>Thông Tin</th><th>Giá Trị</th></tr>" +
+                                "<tr><td>Mã đặt chỗ</td><td>%d</td></tr>" +
+                                "<tr><td>Ngày</td><td>%s</td></tr>" +
+                                "<tr><td>Giờ</td><td>%s</td></tr>" +
+                                "<tr><td>Số lượng người lớn</td><td>%d</td></tr>" +
+                                "<tr><td>Số lượng trẻ em</td><td>%d</td></tr>" +
+                                "<tr><td>Trạng thái</td><td>Chờ xác nhận</td></tr>" +
+                                "</table><br>" +
+                                "Nếu bạn không còn nhu cầu, xin vui lòng hủy đơn đặt chỗ để nhường chỗ cho khách khác.<br><br>" +
+                                "Trân trọng,<br>" +
+                                "SkedEat<br>",
+                        entry.fullName,
+                        entry.locationName,
+                        booking.getId(),
+                        booking.getBookingDate(),
+                        booking.getBookingTime(),
+                        booking.getNumberOfAdult(),
+                        booking.getNumberOfChildren()
+                ) +
+                "</body>" +
+                "</html>";
+
+        emailService.sendEmail(entry.email, subject, content);
+    }
+
+    private record WaitlistKey(Long locationId, LocalDate date, LocalTime time) {
+    }
+
+    private static final class WaitlistQueue {
+        private final Queue<WaitlistEntry> entries = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger drainRequests = new AtomicInteger();
+    }
+
+    private static final class WaitlistEntry {
+        private static final int WAITING = 0;
+        private static final int PROMOTING = 1;
+        private static final int DONE = 2;
+
+        private final Long id;
+        private final WaitlistKey key;
+        private final Long userId;
+        private final String email;
+        private final String fullName;
+        private final String locationName;
+        private final WaitlistRequest request;
+        private final int numberOfGuest;
+        private final LocalDateTime joinedAt;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        private WaitlistEntry(Long id, WaitlistKey key, Long userId, String email, String fullName, String locationName,
+                              WaitlistRequest request, int numberOfGuest, LocalDateTime joinedAt) {
+            this.id = id;
+            this.key = key;
+            this.userId = userId;
+            this.email = email;
+            this.fullName = fullName;
+            this.locationName = locationName;
+            this.request = request;
+            this.numberOfGuest = numberOfGuest;
+            this.joinedAt = joinedAt;
+        }
+    }
+}
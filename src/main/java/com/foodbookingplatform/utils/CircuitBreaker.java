@@ -0,0 +1,48 @@
+package com.foodbookingplatform.utils;
+
+/**
+ * Consecutive-failure circuit breaker: after failureThreshold failures in a row the circuit stays open for openMillis,
+ * then lets a single trial call through whose outcome closes or reopens it.
+ */
+public class CircuitBreaker {
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private int consecutiveFailures;
+    private long openUntil;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    // Every granted call must end in onSuccess, onFailure or release
+    public synchronized boolean tryAcquire() {
+        if (consecutiveFailures < failureThreshold) return true;
+        if (System.currentTimeMillis() < openUntil || trialInFlight) return false;
+        trialInFlight = true;
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (consecutiveFailures >= failureThreshold) openUntil = System.currentTimeMillis() + openMillis;
+    }
+
+    // The call never reached the remote side, its outcome says nothing about it
+    public synchronized void release() {
+        trialInFlight = false;
+    }
+
+    public synchronized String state() {
+        if (consecutiveFailures < failureThreshold) return "CLOSED";
+        return System.currentTimeMillis() < openUntil ? "OPEN" : "HALF_OPEN";
+    }
+}
@@ -0,0 +1,68 @@
+package com.foodbookingplatform.utils;
+
+import vn.payos.PayOS;
+import vn.payos.type.CheckoutResponseData;
+import vn.payos.type.PaymentData;
+import vn.payos.type.PaymentLinkData;
+import vn.payos.type.Webhook;
+import vn.payos.type.WebhookData;
+
+import java.util.UUID;
+
+/**
+ * In-process stand-in for PayOS used for local load tests (payos.fake = true): answers after a fixed delay,
+ * never calls out and accepts unsigned webhooks. Never enable it in production.
+ */
+public class FakePayOS extends PayOS {
+    private final long latencyMillis;
+
+    public FakePayOS(String clientId, String apiKey, String checksumKey, long latencyMillis) {
+        super(clientId, apiKey, checksumKey);
+        this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public CheckoutResponseData createPaymentLink(PaymentData paymentData) throws Exception {
+        simulateLatency();
+        String paymentLinkId = UUID.randomUUID().toString().replace("-", "");
+        return CheckoutResponseData.builder()
+                .bin("970422")
+                .accountNumber("0000000000")
+                .accountName("SKEDEAT FAKE PAYOS")
+                .amount(paymentData.getAmount())
+                .description(paymentData.getDescription())
+                .orderCode(paymentData.getOrderCode())
+                .currency("VND")
+                .paymentLinkId(paymentLinkId)
+                .status("PENDING")
+                .expiredAt(paymentData.getExpiredAt())
+                .checkoutUrl("http://localhost:8080/fake-payos/checkout/" + paymentLinkId)
+                .qrCode("")
+                .build();
+    }
+
+    // Links never get paid or cancelled here
+    @Override
+    public PaymentLinkData getPaymentLinkInformation(Long orderCode) throws Exception {
+        simulateLatency();
+        return PaymentLinkData.builder()
+                .orderCode(orderCode)
+                .status("PENDING")
+                .build();
+    }
+
+    @Override
+    public String confirmWebhook(String webhookUrl) throws Exception {
+        simulateLatency();
+        return webhookUrl;
+    }
+
+    @Override
+    public WebhookData verifyPaymentWebhookData(Webhook webhook) {
+        return webhook.getData();
+    }
+
+    private void simulateLatency() throws InterruptedException {
+        if (latencyMillis > 0) Thread.sleep(latencyMillis);
+    }
+}
@@ -0,0 +1,101 @@
+package com.foodbookingplatform.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: every level has 64 buckets and each level spans 64 times the level below it.
+ * Adding a deadline and firing due entries are O(1) per entry, no matter how many deadlines are registered.
+ */
+public class HierarchicalTimingWheel<T> {
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private final long tickMillis;
+    private final int levels;
+    private final List<List<Entry<T>>>[] buckets;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, int levels, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.levels = levels;
+        this.buckets = new List[levels];
+        for (int level = 0; level < levels; level++) {
+            List<List<Entry<T>>> wheel = new ArrayList<>(WHEEL_SIZE);
+            for (int i = 0; i < WHEEL_SIZE; i++) wheel.add(new ArrayList<>());
+            buckets[level] = wheel;
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    // Register an item; returns false when the deadline is already due so the caller can handle it right away
+    public synchronized boolean add(long deadlineMillis, T item) {
+        long deadlineTick = ceilTick(deadlineMillis);
+        if (deadlineTick <= currentTick) return false;
+        place(new Entry<>(deadlineTick, item));
+        size++;
+        return true;
+    }
+
+    // Move the wheel forward to nowMillis and return every item whose deadline has passed
+    public synchronized List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        long targetTick = nowMillis / tickMillis;
+
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade(expired);
+            List<Entry<T>> bucket = buckets[0].get((int) (currentTick & WHEEL_MASK));
+            for (Entry<T> entry : bucket) expired.add(entry.item);
+            bucket.clear();
+        }
+
+        size -= expired.size();
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void clear(long startMillis) {
+        for (List<List<Entry<T>>> wheel : buckets) wheel.forEach(List::clear);
+        currentTick = startMillis / tickMillis;
+        size = 0;
+    }
+
+    // When a lower level wraps around, redistribute the matching bucket of the level above (highest level first)
+    private void cascade(List<T> expired) {
+        for (int level = levels - 1; level > 0; level--) {
+            long lowerSpanMask = (1L << (WHEEL_BITS * level)) - 1;
+            if ((currentTick & lowerSpanMask) != 0) continue;
+
+            List<Entry<T>> bucket = buckets[level].get((int) ((currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK));
+            if (bucket.isEmpty()) continue;
+            List<Entry<T>> moving = new ArrayList<>(bucket);
+            bucket.clear();
+            for (Entry<T> entry : moving) {
+                if (entry.deadlineTick <= currentTick) expired.add(entry.item);
+                else place(entry);
+            }
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        long remaining = entry.deadlineTick - currentTick;
+        int level = 0;
+        while (level < levels - 1 && remaining >= (1L << (WHEEL_BITS * (level + 1)))) level++;
+        int index = (int) ((entry.deadlineTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        buckets[level].get(index).add(entry);
+    }
+
+    private long ceilTick(long millis) {
+        return (millis + tickMillis - 1) / tickMillis;
+    }
+
+    private record Entry<T>(long deadlineTick, T item) {
+    }
+}
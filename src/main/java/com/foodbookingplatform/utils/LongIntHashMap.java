@@ -0,0 +1,55 @@
+package com.foodbookingplatform.utils;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from long keys to non-negative int values, without boxing either side.
+ * Sized once for the expected number of keys; get returns -1 for a missing key.
+ */
+public class LongIntHashMap {
+    private final long[] keys;
+    private final int[] values;
+    private final int mask;
+    private int size;
+
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(values, -1);
+    }
+
+    // Keeps the existing value of a key that is already present and returns it, otherwise returns -1
+    public int putIfAbsent(long key, int value) {
+        if (size * 2 >= keys.length) throw new IllegalStateException("LongIntHashMap is full");
+        int slot = slotOf(key);
+        if (values[slot] >= 0) return values[slot];
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        return -1;
+    }
+
+    public int get(long key) {
+        return values[slotOf(key)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Linear probing; the table is kept at most half full so an empty slot is always found
+    private int slotOf(long key) {
+        int slot = (int) mix(key) & mask;
+        while (values[slot] >= 0 && keys[slot] != key) slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return key;
+    }
+}
@@ -7,27 +7,108 @@ import org.springframework.http.HttpStatus;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Order codes packed into the 53 bits PayOS accepts:
+ * [1 format marker][1 type][24 minute][22 user id][2 node][3 sequence].
+ * Minutes count Vietnam time from 2024-01-01. Codes issued before this layout are decimal strings
+ * ("100"/"200" + epoch seconds + user id) that always stay below the marker bit, so both formats decode.
+ */
 public class PaymentCodeGenerator {
     @Getter
     private static final String COMMISSION_PAYMENT_CODE = "200";
     @Getter
     private static final String ORDER_PAYMENT_CODE = "100";
 
-    // Generate an order code with a UNIX timestamp for the current time (in seconds)
-    public static String generateOrderCode(long userId) {
-        long timestamp = Instant.now().getEpochSecond(); // Get current UNIX timestamp in seconds
-        return ORDER_PAYMENT_CODE + timestamp + userId;
+    private static final int ORDER_TYPE = 0;
+    private static final int COMMISSION_TYPE = 1;
+
+    private static final int SEQUENCE_BITS = 3;
+    private static final int NODE_BITS = 2;
+    private static final int USER_BITS = 22;
+    private static final int MINUTE_BITS = 24;
+    private static final int NODE_SHIFT = SEQUENCE_BITS;
+    private static final int USER_SHIFT = NODE_SHIFT + NODE_BITS;
+    private static final int MINUTE_SHIFT = USER_SHIFT + USER_BITS;
+    private static final int TYPE_SHIFT = MINUTE_SHIFT + MINUTE_BITS;
+    private static final long PACKED_MARKER = 1L << (TYPE_SHIFT + 1);
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long NODE_MASK = (1L << NODE_BITS) - 1;
+    private static final long USER_MASK = (1L << USER_BITS) - 1;
+    private static final long MINUTE_MASK = (1L << MINUTE_BITS) - 1;
+
+    private static final ZoneOffset VIETNAM_OFFSET = ZoneOffset.ofHours(7);
+    private static final long MINUTE_EPOCH_SECOND = LocalDateTime.of(2024, 1, 1, 0, 0).toEpochSecond(VIETNAM_OFFSET);
+    // A burst may run at most this many minutes ahead of the clock before further codes are refused
+    private static final long MAX_BORROWED_MINUTES = 1;
+    private static final int EVICTION_THRESHOLD = 10_000;
+
+    // Distinct per instance (0-3) when several instances issue payment links
+    private static final long NODE_ID = Long.parseLong(System.getenv().getOrDefault("ORDER_CODE_NODE_ID", "0")) & NODE_MASK;
+
+    // (user id << 1 | type) -> (minute << SEQUENCE_BITS | sequence) of the last code issued here
+    private static final Map<Long, Long> lastIssued = new ConcurrentHashMap<>();
+
+    public static long generateOrderCode(long userId) {
+        return generate(ORDER_TYPE, userId, Instant.now().getEpochSecond());
+    }
+
+    public static long generateCommissionCode(long userId) {
+        return generate(COMMISSION_TYPE, userId, Instant.now().getEpochSecond());
     }
 
-    // Generate a commission code with a UNIX timestamp
-    public static String generateCommissionCode(long userId) {
-        long timestamp = Instant.now().getEpochSecond(); // Get current UNIX timestamp in seconds
-        return COMMISSION_PAYMENT_CODE + timestamp + userId;
+    // Codes only need to differ within one user, type and minute; once the 3-bit sequence is used up the
+    // next minute is borrowed, so a code is never handed out twice even when the clock steps back
+    static long generate(int type, long userId, long epochSecond) {
+        if (userId < 0 || userId > USER_MASK)
+            throw new IllegalArgumentException("User id does not fit into an order code: " + userId);
+        long minute = (epochSecond - MINUTE_EPOCH_SECOND) / 60;
+        if (minute < 0 || minute > MINUTE_MASK)
+            throw new IllegalStateException("Clock is outside the order code range");
+
+        if (lastIssued.size() > EVICTION_THRESHOLD) lastIssued.values().removeIf(issued -> (issued >>> SEQUENCE_BITS) < minute);
+
+        Long key = userId << 1 | type;
+        while (true) {
+            Long previous = lastIssued.get(key);
+            long next = previous == null || (previous >>> SEQUENCE_BITS) < minute ? minute << SEQUENCE_BITS : previous + 1;
+            long issuedMinute = next >>> SEQUENCE_BITS;
+            // Commission codes are billed by the month they decode to, so a burst never borrows into the next month
+            if (issuedMinute > minute + MAX_BORROWED_MINUTES || issuedMinute > MINUTE_MASK
+                    || (issuedMinute > minute && monthOf(issuedMinute) != monthOf(minute)))
+                throw new RestaurantBookingException(HttpStatus.TOO_MANY_REQUESTS, "Too many payment requests, please try again in a minute!");
+            boolean claimed = previous == null ? lastIssued.putIfAbsent(key, next) == null : lastIssued.replace(key, previous, next);
+            if (claimed) {
+                return PACKED_MARKER
+                        | (long) type << TYPE_SHIFT
+                        | issuedMinute << MINUTE_SHIFT
+                        | userId << USER_SHIFT
+                        | NODE_ID << NODE_SHIFT
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    private static int monthOf(long minute) {
+        return LocalDateTime.ofEpochSecond(MINUTE_EPOCH_SECOND + minute * 60, 0, VIETNAM_OFFSET).getMonthValue();
+    }
+
+    public static boolean isPackedOrderCode(long orderCode) {
+        return orderCode >= PACKED_MARKER;
+    }
+
+    public static boolean isCommissionCode(long orderCode) {
+        if (isPackedOrderCode(orderCode)) return ((orderCode >>> TYPE_SHIFT) & 1) == COMMISSION_TYPE;
+        return getPaymentCodeFromOrderCode(orderCode).equals(COMMISSION_PAYMENT_CODE);
     }
 
     // Extract the userId from the order code
     public static long getUserIdFromOrderCode(long orderCode) {
+        if (isPackedOrderCode(orderCode)) return (orderCode >>> USER_SHIFT) & USER_MASK;
+
         String orderCodeString = String.valueOf(orderCode);
 
         // Length constants
@@ -47,13 +128,18 @@ public class PaymentCodeGenerator {
 
     // Extract the payment code from the order code
     public static String getPaymentCodeFromOrderCode(long orderCode) {
+        if (isPackedOrderCode(orderCode))
+            return ((orderCode >>> TYPE_SHIFT) & 1) == COMMISSION_TYPE ? COMMISSION_PAYMENT_CODE : ORDER_PAYMENT_CODE;
+
         String orderCodeString = String.valueOf(orderCode);
         int paymentCodeLength = 3;
         return orderCodeString.substring(0, paymentCodeLength);
     }
 
-    // Extract the UNIX timestamp from the order code
+    // Extract the UNIX timestamp from the order code, to the minute for packed codes
     public static long getTimestampFromOrderCode(long orderCode) {
+        if (isPackedOrderCode(orderCode)) return MINUTE_EPOCH_SECOND + ((orderCode >>> MINUTE_SHIFT) & MINUTE_MASK) * 60;
+
         String orderCodeString = String.valueOf(orderCode);
 
         // Length constants
@@ -0,0 +1,122 @@
+package com.foodbookingplatform.utils;
+
+import java.util.Arrays;
+
+/**
+ * Table occupancy of one location-day: for every slot a bitset of the tables already taken.
+ * Tables are indexed by ascending seat count, so the first free table that fits a party is also the tightest one.
+ */
+public class TableAllocator {
+    private final int[] seats;
+    private final int[] groups;
+    private final int groupCount;
+    private final long[][] occupied;
+    private final long[] tableMask;
+
+    // groups[i] is the combine group of table i, or -1 when the table cannot be combined
+    public TableAllocator(int[] seats, int[] groups, int slotCount) {
+        this.seats = seats;
+        this.groups = groups;
+        this.groupCount = Arrays.stream(groups).max().orElse(-1) + 1;
+        int words = (seats.length + 63) >>> 6;
+        this.occupied = new long[slotCount][words];
+        this.tableMask = new long[words];
+        for (int i = 0; i < seats.length; i++) tableMask[i >>> 6] |= 1L << i;
+    }
+
+    public int tableCount() {
+        return seats.length;
+    }
+
+    // Pick and take tables for the party over slots [fromSlot, toSlot); returns null when nothing fits
+    public synchronized int[] allocate(int fromSlot, int toSlot, int guests) {
+        long[] free = freeTables(fromSlot, toSlot);
+
+        int[] best = null;
+        for (int i = nextFree(free, 0); i >= 0; i = nextFree(free, i + 1)) {
+            if (seats[i] >= guests) {
+                best = new int[]{i};
+                break;
+            }
+        }
+        if (best == null) best = combine(free, guests);
+        if (best != null) mark(best, fromSlot, toSlot, true);
+        return best;
+    }
+
+    public synchronized void occupy(int[] tables, int fromSlot, int toSlot) {
+        mark(tables, fromSlot, toSlot, true);
+    }
+
+    public synchronized void release(int[] tables, int fromSlot, int toSlot) {
+        mark(tables, fromSlot, toSlot, false);
+    }
+
+    // Per combine group take the largest free tables until the party fits, then shrink the last pick to the
+    // smallest table that still covers the rest; keep the group that wastes the fewest seats
+    private int[] combine(long[] free, int guests) {
+        int[] best = null;
+        int bestSeats = Integer.MAX_VALUE;
+        int[] picked = new int[seats.length];
+
+        for (int group = 0; group < groupCount; group++) {
+            int count = 0;
+            int total = 0;
+            for (int i = seats.length - 1; i >= 0 && total < guests; i--) {
+                if (groups[i] == group && isFree(free, i)) {
+                    picked[count++] = i;
+                    total += seats[i];
+                }
+            }
+            if (total < guests) continue;
+
+            int last = picked[count - 1];
+            int needed = guests - (total - seats[last]);
+            for (int i = 0; i < last; i++) {
+                if (groups[i] == group && isFree(free, i) && seats[i] >= needed) {
+                    picked[count - 1] = i;
+                    total += seats[i] - seats[last];
+                    break;
+                }
+            }
+
+            if (total < bestSeats || (total == bestSeats && count < best.length)) {
+                best = Arrays.copyOf(picked, count);
+                bestSeats = total;
+            }
+        }
+        return best;
+    }
+
+    private long[] freeTables(int fromSlot, int toSlot) {
+        long[] free = tableMask.clone();
+        for (int slot = fromSlot; slot < toSlot; slot++) {
+            for (int w = 0; w < free.length; w++) free[w] &= ~occupied[slot][w];
+        }
+        return free;
+    }
+
+    private void mark(int[] tables, int fromSlot, int toSlot, boolean taken) {
+        for (int slot = fromSlot; slot < toSlot; slot++) {
+            for (int table : tables) {
+                if (taken) occupied[slot][table >>> 6] |= 1L << table;
+                else occupied[slot][table >>> 6] &= ~(1L << table);
+            }
+        }
+    }
+
+    private static boolean isFree(long[] free, int table) {
+        return (free[table >>> 6] & (1L << table)) != 0;
+    }
+
+    private static int nextFree(long[] free, int from) {
+        int w = from >>> 6;
+        if (w >= free.length) return -1;
+        long word = free[w] & (-1L << from);
+        while (true) {
+            if (word != 0) return (w << 6) + Long.numberOfTrailingZeros(word);
+            if (++w == free.length) return -1;
+            word = free[w];
+        }
+    }
+}
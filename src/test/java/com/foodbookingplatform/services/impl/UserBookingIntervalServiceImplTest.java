@@ -0,0 +1,111 @@
+package com.foodbookingplatform.services.impl;
+
+import com.foodbookingplatform.models.entities.LocationBooking;
+import com.foodbookingplatform.models.entities.User;
+import com.foodbookingplatform.models.exception.RestaurantBookingException;
+import com.foodbookingplatform.repositories.LocationBookingRepository;
+import com.foodbookingplatform.utils.DateTimeUtil;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserBookingIntervalServiceImplTest {
+
+    private static final long USER_ID = 7L;
+
+    private final LocationBookingRepository locationBookingRepository = mock(LocationBookingRepository.class);
+    private final UserBookingIntervalServiceImpl service = new UserBookingIntervalServiceImpl(locationBookingRepository);
+    private final LocalDate bookingDate = DateTimeUtil.nowInVietnam().toLocalDate().plusDays(2);
+    private final List<Object[]> savedRows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "diningMinutes", 120L);
+        // Stands in for the table: reserve runs after save, so the booking itself is already visible
+        when(locationBookingRepository.findUpcomingBookingTimesOfUser(eq(USER_ID), any(), any())).thenReturn(savedRows);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void firstBookingOfUncachedUserDoesNotOverlapItself() {
+        LocationBooking booking = save(1L, LocalTime.of(19, 0));
+
+        assertDoesNotThrow(() -> service.reserve(booking));
+    }
+
+    @Test
+    void overlappingBookingIsRejectedAndSeparateOneAccepted() {
+        service.reserve(save(1L, LocalTime.of(19, 0)));
+
+        assertThrows(RestaurantBookingException.class, () -> service.reserve(save(2L, LocalTime.of(20, 30))));
+        assertDoesNotThrow(() -> service.reserve(save(3L, LocalTime.of(21, 0))));
+    }
+
+    @Test
+    void rolledBackBookingNoLongerBlocksTheUser() {
+        LocationBooking rejected = save(1L, LocalTime.of(19, 0));
+        service.reserve(rejected);
+        assertThrows(RestaurantBookingException.class, () -> service.reserve(save(2L, LocalTime.of(19, 30))));
+
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertDoesNotThrow(() -> service.reserve(save(3L, LocalTime.of(19, 30))));
+    }
+
+    @Test
+    void userIntervalsIgnoreOnlyTheReservedBooking() {
+        UserBookingIntervalServiceImpl.UserIntervals intervals = new UserBookingIntervalServiceImpl.UserIntervals();
+        intervals.add(1L, 1000);
+
+        assertFalse(intervals.overlaps(1000, 120, 1L));
+        assertTrue(intervals.overlaps(1000, 120, 2L));
+        assertFalse(intervals.overlaps(1120, 120, 2L));
+
+        intervals.add(2L, 1000);
+        assertTrue(intervals.overlaps(1000, 120, 1L));
+
+        intervals.remove(2L);
+        intervals.add(3L, 1050);
+        assertTrue(intervals.overlaps(1000, 120, 1L));
+    }
+
+    private LocationBooking save(Long bookingId, LocalTime time) {
+        savedRows.add(new Object[]{bookingId, bookingDate, time});
+        User user = new User();
+        user.setId(USER_ID);
+        LocationBooking booking = new LocationBooking();
+        booking.setId(bookingId);
+        booking.setUser(user);
+        booking.setBookingDate(bookingDate);
+        booking.setBookingTime(time);
+        return booking;
+    }
+
+    private void completeTransaction(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        savedRows.clear();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
@@ -0,0 +1,52 @@
+package com.foodbookingplatform.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of order code generation from several threads sharing the issued-code map. Each thread walks its own
+ * users on a simulated clock, one code per (user, minute), so the per-minute rate limit is never what is measured.
+ * Run with {@code main} from the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class PaymentCodeGeneratorBenchmark {
+
+    private static final long USERS_PER_THREAD = 512;
+    private static final AtomicLong threadCount = new AtomicLong();
+    private static final long START_EPOCH_SECOND = LocalDateTime.of(2025, 1, 1, 0, 0).toEpochSecond(ZoneOffset.ofHours(7));
+
+    private final long firstUserId = threadCount.getAndIncrement() * USERS_PER_THREAD;
+    private long calls;
+
+    @Benchmark
+    public long generate() {
+        long call = calls++;
+        return PaymentCodeGenerator.generate(1, firstUserId + call % USERS_PER_THREAD, START_EPOCH_SECOND + call / USERS_PER_THREAD * 60);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PaymentCodeGeneratorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,91 @@
+package com.foodbookingplatform.utils;
+
+import com.foodbookingplatform.models.exception.RestaurantBookingException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentCodeGeneratorTest {
+
+    private static final long MAX_PAYOS_ORDER_CODE = (1L << 53) - 1;
+
+    @Test
+    void packedCodeDecodesBackToItsFields() {
+        long epochSecond = LocalDateTime.of(2025, 3, 15, 20, 30).toEpochSecond(ZoneOffset.ofHours(7));
+        long orderCode = PaymentCodeGenerator.generate(1, 4_000_000L, epochSecond);
+
+        assertTrue(orderCode <= MAX_PAYOS_ORDER_CODE);
+        assertTrue(PaymentCodeGenerator.isPackedOrderCode(orderCode));
+        assertTrue(PaymentCodeGenerator.isCommissionCode(orderCode));
+        assertEquals(4_000_000L, PaymentCodeGenerator.getUserIdFromOrderCode(orderCode));
+        assertEquals(PaymentCodeGenerator.getCOMMISSION_PAYMENT_CODE(), PaymentCodeGenerator.getPaymentCodeFromOrderCode(orderCode));
+        assertEquals(epochSecond, PaymentCodeGenerator.getTimestampFromOrderCode(orderCode));
+        assertEquals(2, PaymentCodeGenerator.getLastMonthFromOrderCode(orderCode));
+        assertEquals(2025, PaymentCodeGenerator.getLastYearFromOrderCode(orderCode));
+    }
+
+    @Test
+    void legacyDecimalCodesStillDecode() {
+        long orderCode = Long.parseLong("200" + 1730000000L + "42");
+
+        assertFalse(PaymentCodeGenerator.isPackedOrderCode(orderCode));
+        assertTrue(PaymentCodeGenerator.isCommissionCode(orderCode));
+        assertEquals(42L, PaymentCodeGenerator.getUserIdFromOrderCode(orderCode));
+        assertEquals(1730000000L, PaymentCodeGenerator.getTimestampFromOrderCode(orderCode));
+    }
+
+    @Test
+    void burstAtTheEndOfAMonthIsNotBilledToTheNextMonth() {
+        long epochSecond = LocalDateTime.of(2025, 1, 31, 23, 59, 30).toEpochSecond(ZoneOffset.ofHours(7));
+        long userId = 3_000_000L;
+        for (int i = 0; i < 8; i++) {
+            assertEquals(12, PaymentCodeGenerator.getLastMonthFromOrderCode(PaymentCodeGenerator.generate(1, userId, epochSecond)));
+        }
+
+        RestaurantBookingException e = assertThrows(RestaurantBookingException.class,
+                () -> PaymentCodeGenerator.generate(1, userId, epochSecond));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatus());
+    }
+
+    @Test
+    void concurrentBurstsOfTheSameUsersNeverCollide() throws Exception {
+        long epochSecond = LocalDateTime.of(2025, 6, 1, 12, 0).toEpochSecond(ZoneOffset.ofHours(7));
+        int threads = 8;
+        int codesPerUserAndThread = 2;
+        int users = 1000;
+        Set<Long> codes = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < codesPerUserAndThread; i++) {
+                        for (long userId = 10_000; userId < 10_000 + users; userId++) {
+                            assertTrue(codes.add(PaymentCodeGenerator.generate(0, userId, epochSecond)));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) future.get();
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(threads * codesPerUserAndThread * users, codes.size());
+    }
+}